@@ -1,5 +1,6 @@
 package leonardo.savona.sudoku.io;
 
+import leonardo.savona.sudoku.model.BoxGeometry;
 import leonardo.savona.sudoku.model.Sudoku;
 
 import java.io.*;
@@ -28,27 +29,82 @@ public class SudokuIO {
 
     /**
      * Carica un sudoku da file. Tutti i numeri diversi da 0 diventano "fixed".
+     * La dimensione si ricava dalla prima riga e i quadrati seguono
+     * {@link BoxGeometry#forSize(int)} (6 → 2x3, 9 → 3x3, 12 → 3x4...).
+     * <p>
+     * Ogni riga può elencare i valori separati da spazi (anche a più cifre) oppure essere
+     * compatta, un carattere per cella. In entrambi i casi {@code 0} o {@code .} indicano
+     * la cella vuota e le lettere valgono dal 10 in su ({@code A} = 10, {@code G} = 16...).
      */
     public static Sudoku loadFromFile(File file) throws IOException {
-        Sudoku board = new Sudoku();
+        Sudoku board = null;
         try (BufferedReader br = new BufferedReader(new InputStreamReader(
                 new FileInputStream(file), StandardCharsets.UTF_8))) {
             String line;
             int row = 0;
-            while ((line = br.readLine()) != null && row < board.getSize()) {
-                String[] parts = line.trim().split("\\s+");
+            while ((line = br.readLine()) != null && (board == null || row < board.getSize())) {
+                String[] parts = splitRow(line.trim());
+                if (parts.length == 0) {
+                    continue;
+                }
+                if (board == null) {
+                    board = newBoard(parts.length);
+                }
                 if (parts.length != board.getSize()) {
-                    throw new IOException("Riga " + row + " non ha 9 numeri");
+                    throw new IOException("Riga " + row + " non ha " + board.getSize() + " numeri");
                 }
                 for (int col = 0; col < board.getSize(); col++) {
-                    int value = Integer.parseInt(parts[col]);
+                    int value = parseValue(parts[col]);
+                    if (value < 0 || value > board.getSize()) {
+                        throw new IOException("Valore non valido alla riga " + row + ": " + parts[col]);
+                    }
                     if (value != 0) {
                         board.setValue(row, col, value, true);
                     }
                 }
                 row++;
             }
+            if (board == null) {
+                throw new IOException("File vuoto: " + file.getName());
+            }
         }
         return board;
     }
+
+    private static String[] splitRow(String line) {
+        if (line.isEmpty()) {
+            return new String[0];
+        }
+        String[] parts = line.split("\\s+");
+        if (parts.length == 1 && line.length() > 1) {
+            // riga compatta: un carattere per cella
+            parts = new String[line.length()];
+            for (int i = 0; i < parts.length; i++) {
+                parts[i] = String.valueOf(line.charAt(i));
+            }
+        }
+        return parts;
+    }
+
+    private static int parseValue(String token) throws IOException {
+        if (token.equals(".")) {
+            return 0;
+        }
+        if (token.length() == 1 && Character.isLetter(token.charAt(0))) {
+            return Character.toUpperCase(token.charAt(0)) - 'A' + 10;
+        }
+        try {
+            return Integer.parseInt(token);
+        } catch (NumberFormatException e) {
+            throw new IOException("Valore non valido: " + token, e);
+        }
+    }
+
+    private static Sudoku newBoard(int size) throws IOException {
+        try {
+            return new Sudoku(BoxGeometry.forSize(size));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Dimensione non supportata: " + size, e);
+        }
+    }
 }
@@ -0,0 +1,159 @@
+package leonardo.savona.sudoku.model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Blocco di memoria fuori heap ({@link ByteBuffer#allocateDirect(int)}) diviso in slot di
+ * dimensione fissa, ognuno con una board compatta: un byte di valore e un long di candidati
+ * per cella. Gli slot si indicano con un handle intero; si liberano uno per uno con
+ * {@link #free(int)} o tutti insieme con {@link #reset()}, senza lavoro per il garbage collector.
+ * <p>
+ * Non è thread-safe: ogni thread usa la propria arena.
+ */
+public final class BoardArena {
+
+    private final Topology topology;
+    private final int cellCount;
+    private final int recordSize;
+    private final int candidatesOffset;
+    private final int capacity;
+    private final ByteBuffer buffer;
+
+    // slot liberati, riusati prima di quelli mai allocati
+    private final int[] freeSlots;
+    private int freeCount;
+    private int nextUnused;
+
+    public BoardArena(BoxGeometry geometry, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacità non valida: " + capacity);
+        }
+        this.topology = Topology.of(geometry);
+        this.cellCount = topology.getCellCount();
+        // candidati allineati a 8 byte dopo i valori
+        this.candidatesOffset = (cellCount + 7) & ~7;
+        this.recordSize = candidatesOffset + cellCount * Long.BYTES;
+        if ((long) recordSize * capacity > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Arena troppo grande: " + capacity + " slot");
+        }
+        this.capacity = capacity;
+        this.buffer = ByteBuffer.allocateDirect(recordSize * capacity).order(ByteOrder.nativeOrder());
+        this.freeSlots = new int[capacity];
+    }
+
+    public Topology getTopology() {
+        return topology;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Slot attualmente in uso.
+     */
+    public int getUsed() {
+        return nextUnused - freeCount;
+    }
+
+    /**
+     * Nuovo slot con tutte le celle vuote e senza candidati.
+     */
+    public int allocate() {
+        int handle;
+        if (freeCount > 0) {
+            handle = freeSlots[--freeCount];
+        } else if (nextUnused < capacity) {
+            handle = nextUnused++;
+        } else {
+            throw new IllegalStateException("Arena piena: " + capacity + " slot");
+        }
+        int base = handle * recordSize;
+        for (int i = 0; i < recordSize; i += Long.BYTES) {
+            buffer.putLong(base + i, 0L);
+        }
+        return handle;
+    }
+
+    public void free(int handle) {
+        freeSlots[freeCount++] = handle;
+    }
+
+    /**
+     * Libera tutti gli slot in un colpo solo, per esempio alla fine di una generazione di board.
+     */
+    public void reset() {
+        freeCount = 0;
+        nextUnused = 0;
+    }
+
+    /**
+     * Copia la board in un nuovo slot. Le celle vuote ricevono come candidati i numeri
+     * non ancora presenti nelle loro unità.
+     */
+    public int load(Sudoku sudoku) {
+        if (sudoku.getTopology() != topology) {
+            throw new IllegalArgumentException("Geometria diversa da quella dell'arena");
+        }
+        int handle = allocate();
+        long all = Candidates.all(topology.getSize());
+        for (int i = 0; i < cellCount; i++) {
+            int value = sudoku.getValueAt(i);
+            if (value != 0) {
+                setValue(handle, i, value);
+            } else {
+                long used = Candidates.NONE;
+                for (int unit : topology.unitsOf(i)) {
+                    used |= sudoku.getUnitMask(unit);
+                }
+                setCandidates(handle, i, all & ~used);
+            }
+        }
+        return handle;
+    }
+
+    /**
+     * Nuovo slot con lo stesso contenuto di quello indicato.
+     */
+    public int copy(int handle) {
+        int copy = allocate();
+        int from = handle * recordSize;
+        int to = copy * recordSize;
+        for (int i = 0; i < recordSize; i += Long.BYTES) {
+            buffer.putLong(to + i, buffer.getLong(from + i));
+        }
+        return copy;
+    }
+
+    /**
+     * Ricostruisce una {@link Sudoku} con i valori dello slot.
+     */
+    public Sudoku toSudoku(int handle) {
+        Sudoku sudoku = new Sudoku(topology.getGeometry());
+        int size = topology.getSize();
+        for (int i = 0; i < cellCount; i++) {
+            int value = getValue(handle, i);
+            if (value != 0) {
+                sudoku.setValue(i / size, i % size, value);
+            }
+        }
+        return sudoku;
+    }
+
+    public int getValue(int handle, int index) {
+        return buffer.get(handle * recordSize + index);
+    }
+
+    public void setValue(int handle, int index, int value) {
+        buffer.put(handle * recordSize + index, (byte) value);
+    }
+
+    public long getCandidates(int handle, int index) {
+        return buffer.getLong(handle * recordSize + candidatesOffset + index * Long.BYTES);
+    }
+
+    public void setCandidates(int handle, int index, long mask) {
+        buffer.putLong(handle * recordSize + candidatesOffset + index * Long.BYTES, mask);
+    }
+}
@@ -0,0 +1,130 @@
+package leonardo.savona.sudoku.model;
+
+import java.util.Arrays;
+
+/**
+ * Fotografia immutabile dei valori di una griglia, memorizzati in un solo {@code byte[]}.
+ * Non ha note né celle fisse; i conflitti vengono calcolati alla prima richiesta.
+ */
+public final class BoardSnapshot implements BoardView {
+
+    private final BoxGeometry geometry;
+    private final int size;
+    private final byte[] values;
+    private boolean[] conflicts;
+
+    private BoardSnapshot(BoxGeometry geometry, byte[] values) {
+        this.geometry = geometry;
+        this.size = geometry.getSize();
+        this.values = values;
+    }
+
+    public static BoardSnapshot of(Sudoku sudoku) {
+        byte[] values = new byte[sudoku.getSize() * sudoku.getSize()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (byte) sudoku.getValueAt(i);
+        }
+        return new BoardSnapshot(sudoku.getGeometry(), values);
+    }
+
+    public static BoardSnapshot of(int[][] matrix) {
+        int size = matrix.length;
+        byte[] values = new byte[size * size];
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                values[r * size + c] = (byte) matrix[r][c];
+            }
+        }
+        return new BoardSnapshot(BoxGeometry.forSize(size), values);
+    }
+
+    /**
+     * Nuova fotografia uguale a questa tranne che per il valore della cella indicata.
+     */
+    public BoardSnapshot with(int row, int column, int value) {
+        byte[] copy = values.clone();
+        copy[row * size + column] = (byte) value;
+        return new BoardSnapshot(geometry, copy);
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public BoxGeometry getGeometry() {
+        return geometry;
+    }
+
+    @Override
+    public int getValue(int row, int column) {
+        return values[row * size + column];
+    }
+
+    public int getValueAt(int index) {
+        return values[index];
+    }
+
+    @Override
+    public boolean isFixed(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public boolean hasNote(int row, int column, int number) {
+        return false;
+    }
+
+    @Override
+    public boolean hasNotes(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public boolean isCellInConflict(int row, int column) {
+        if (conflicts == null) {
+            conflicts = computeConflicts();
+        }
+        return conflicts[row * size + column];
+    }
+
+    private boolean[] computeConflicts() {
+        Topology topology = Topology.of(geometry);
+        boolean[] result = new boolean[values.length];
+        for (int unit = 0; unit < topology.getUnitCount(); unit++) {
+            int[] cells = topology.getUnit(unit);
+            long seen = Candidates.NONE;
+            long repeated = Candidates.NONE;
+            for (int index : cells) {
+                if (values[index] != 0) {
+                    long bit = Candidates.of(values[index]);
+                    repeated |= seen & bit;
+                    seen |= bit;
+                }
+            }
+            if (repeated != Candidates.NONE) {
+                for (int index : cells) {
+                    if (Candidates.contains(repeated, values[index])) {
+                        result[index] = true;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    public int[][] toMatrix() {
+        int[][] matrix = new int[size][size];
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                matrix[r][c] = values[r * size + c];
+            }
+        }
+        return matrix;
+    }
+
+    public boolean sameValues(BoardSnapshot other) {
+        return other != null && geometry.equals(other.geometry) && Arrays.equals(values, other.values);
+    }
+}
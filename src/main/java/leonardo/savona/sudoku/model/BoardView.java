@@ -0,0 +1,27 @@
+package leonardo.savona.sudoku.model;
+
+/**
+ * Lettura di una griglia senza possibilità di modificarla: è quanto serve per disegnarla,
+ * calcolarne l'hash o riprodurre i passi di una soluzione.
+ */
+public interface BoardView {
+
+    int getSize();
+
+    default BoxGeometry getGeometry() {
+        return BoxGeometry.forSize(getSize());
+    }
+
+    int getValue(int row, int column);
+
+    boolean isFixed(int row, int column);
+
+    boolean hasNote(int row, int column, int number);
+
+    /**
+     * Vero se la cella ha almeno una nota.
+     */
+    boolean hasNotes(int row, int column);
+
+    boolean isCellInConflict(int row, int column);
+}
@@ -0,0 +1,82 @@
+package leonardo.savona.sudoku.model;
+
+import java.util.Objects;
+
+/**
+ * Forma dei quadrati della griglia: {@code boxRows} righe per {@code boxColumns} colonne,
+ * con {@code boxRows * boxColumns == size}. Il 9x9 classico ha quadrati 3x3, il 6x6 2x3, il 12x12 3x4.
+ */
+public final class BoxGeometry {
+
+    private final int size;
+    private final int boxRows;
+    private final int boxColumns;
+
+    private BoxGeometry(int boxRows, int boxColumns) {
+        this.size = boxRows * boxColumns;
+        this.boxRows = boxRows;
+        this.boxColumns = boxColumns;
+    }
+
+    public static BoxGeometry of(int boxRows, int boxColumns) {
+        if (boxRows < 1 || boxColumns < 1) {
+            throw new IllegalArgumentException("Quadrato non valido: " + boxRows + "x" + boxColumns);
+        }
+        return new BoxGeometry(boxRows, boxColumns);
+    }
+
+    /**
+     * Geometria standard per la dimensione: i quadrati più vicini possibile a un quadrato,
+     * con meno righe che colonne (6 → 2x3, 8 → 2x4, 10 → 2x5, 12 → 3x4, 16 → 4x4).
+     */
+    public static BoxGeometry forSize(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Dimensione non valida: " + size);
+        }
+        int boxRows = (int) Math.sqrt(size);
+        while (size % boxRows != 0) {
+            boxRows--;
+        }
+        if (boxRows == 1 && size > 3) {
+            throw new IllegalArgumentException("Nessun quadrato possibile per la dimensione " + size);
+        }
+        return new BoxGeometry(boxRows, size / boxRows);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getBoxRows() {
+        return boxRows;
+    }
+
+    public int getBoxColumns() {
+        return boxColumns;
+    }
+
+    /**
+     * Indice del quadrato che contiene la cella, numerando i quadrati per righe.
+     */
+    public int boxOf(int row, int column) {
+        return (row / boxRows) * (size / boxColumns) + column / boxColumns;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BoxGeometry that = (BoxGeometry) o;
+        return boxRows == that.boxRows && boxColumns == that.boxColumns;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(boxRows, boxColumns);
+    }
+
+    @Override
+    public String toString() {
+        return boxRows + "x" + boxColumns;
+    }
+}
@@ -0,0 +1,142 @@
+package leonardo.savona.sudoku.model;
+
+import java.util.Arrays;
+
+/**
+ * Propagazione dei candidati con una coda esplicita: quando un numero viene piazzato si toglie dai
+ * candidati dei soli vicini della cella; i vicini rimasti con un candidato vengono piazzati a loro volta
+ * e messi in coda. Niente ricorsione e niente scansioni della griglia intera.
+ * <p>
+ * È l'unico punto da cui le strategie fanno passare eliminazioni e piazzamenti. Le celle vuote con
+ * candidati non ancora calcolati (maschera vuota) non vengono toccate; una cella che perde l'ultimo
+ * candidato rende la griglia {@link #isInconsistent() inconsistente}.
+ */
+public final class CandidatePropagator {
+
+    private final Sudoku sudoku;
+    private final Topology topology;
+    private int[] queue;
+    private int head;
+    private int tail;
+    private boolean draining;
+    private boolean inconsistent;
+
+    CandidatePropagator(Sudoku sudoku) {
+        this.sudoku = sudoku;
+        this.topology = sudoku.getTopology();
+        this.queue = new int[topology.getCellCount()];
+    }
+
+    /**
+     * Piazza il numero nella cella e lo propaga ai vicini, a cascata.
+     */
+    public void place(int index, int value) {
+        assign(index, value);
+        drain();
+    }
+
+    /**
+     * Toglie i candidati della maschera; se ne resta uno solo, la cella viene piazzata e propagata.
+     */
+    public void eliminate(int index, long mask) {
+        long candidates = sudoku.getCandidatesAt(index);
+        if (sudoku.getValueAt(index) != 0 || candidates == Candidates.NONE || (candidates & mask) == 0) {
+            return;
+        }
+        reduce(index, candidates & ~mask);
+        drain();
+    }
+
+    /**
+     * Lascia solo i candidati della maschera, con le stesse regole di {@link #eliminate(int, long)}.
+     */
+    public void restrict(int index, long mask) {
+        eliminate(index, ~mask);
+    }
+
+    /**
+     * Se la cella vuota ha un solo candidato lo piazza e lo propaga.
+     *
+     * @return {@code true} se la cella è stata piazzata
+     */
+    public boolean settle(int index) {
+        long candidates = sudoku.getCandidatesAt(index);
+        if (sudoku.getValueAt(index) != 0 || !Candidates.isSingle(candidates)) {
+            return false;
+        }
+        place(index, Candidates.lowest(candidates));
+        return true;
+    }
+
+    /**
+     * Toglie dai vicini il numero già presente nella cella, a cascata.
+     */
+    public void propagateFrom(int index) {
+        if (sudoku.getValueAt(index) != 0) {
+            enqueue(index);
+            drain();
+        }
+    }
+
+    /**
+     * Vero se dall'ultimo {@link #clearInconsistent()} una cella vuota è rimasta senza candidati.
+     */
+    public boolean isInconsistent() {
+        return inconsistent;
+    }
+
+    public void clearInconsistent() {
+        inconsistent = false;
+    }
+
+    private void assign(int index, int value) {
+        sudoku.writeValue(index, value);
+        sudoku.setCandidatesAt(index, Candidates.NONE);
+        enqueue(index);
+    }
+
+    private void reduce(int index, long mask) {
+        sudoku.setCandidatesAt(index, mask);
+        if (mask == Candidates.NONE) {
+            inconsistent = true;
+        } else if (Candidates.isSingle(mask)) {
+            assign(index, Candidates.lowest(mask));
+        }
+    }
+
+    private void enqueue(int index) {
+        if (tail == queue.length) {
+            // succede solo se durante la propagazione qualcuno svuota e riempie di nuovo delle celle
+            queue = Arrays.copyOf(queue, queue.length * 2);
+        }
+        queue[tail++] = index;
+    }
+
+    private void drain() {
+        if (draining) {
+            // chiamata annidata (per esempio da un listener): ci pensa il ciclo già in corso
+            return;
+        }
+        draining = true;
+        try {
+            while (head < tail) {
+                int index = queue[head++];
+                int value = sudoku.getValueAt(index);
+                if (value == 0) {
+                    continue;
+                }
+                long bit = Candidates.of(value);
+                for (int peer : topology.getPeers(index)) {
+                    long candidates = sudoku.getCandidatesAt(peer);
+                    if ((candidates & bit) != 0 && sudoku.getValueAt(peer) == 0) {
+                        reduce(peer, candidates & ~bit);
+                    }
+                }
+            }
+        } finally {
+            head = 0;
+            tail = 0;
+            draining = false;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package leonardo.savona.sudoku.model;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Operazioni su insiemi di candidati rappresentati come bitmask primitiva.
+ * Il numero {@code n} corrisponde al bit {@code n - 1}: un {@code long} copre
+ * quindi griglie fino a 64 numeri senza boxing né allocazioni.
+ */
+public final class Candidates {
+
+    public static final long NONE = 0L;
+
+    /**
+     * Numero più alto rappresentabile: limita anche la dimensione della griglia.
+     */
+    public static final int MAX_NUMBER = Long.SIZE;
+
+    private Candidates() {
+    }
+
+    /**
+     * Maschera con tutti i numeri da 1 a {@code size}.
+     */
+    public static long all(int size) {
+        return size >= Long.SIZE ? -1L : (1L << size) - 1;
+    }
+
+    public static long of(int number) {
+        return 1L << (number - 1);
+    }
+
+    public static boolean contains(long mask, int number) {
+        return number > 0 && (mask & of(number)) != 0;
+    }
+
+    public static long add(long mask, int number) {
+        return mask | of(number);
+    }
+
+    public static long remove(long mask, int number) {
+        return mask & ~of(number);
+    }
+
+    public static long intersect(long mask, long other) {
+        return mask & other;
+    }
+
+    public static boolean containsAll(long mask, long other) {
+        return (mask & other) == other;
+    }
+
+    public static int count(long mask) {
+        return Long.bitCount(mask);
+    }
+
+    public static boolean isSingle(long mask) {
+        return mask != 0 && (mask & (mask - 1)) == 0;
+    }
+
+    /**
+     * Numero più basso presente nella maschera, 0 se vuota.
+     */
+    public static int lowest(long mask) {
+        return mask == 0 ? 0 : Long.numberOfTrailingZeros(mask) + 1;
+    }
+
+    public static long withoutLowest(long mask) {
+        return mask & (mask - 1);
+    }
+
+    public static Set<Integer> toSet(long mask) {
+        Set<Integer> result = new LinkedHashSet<>();
+        for (long m = mask; m != 0; m = withoutLowest(m)) {
+            result.add(lowest(m));
+        }
+        return result;
+    }
+
+    public static long fromCollection(Collection<Integer> numbers) {
+        long mask = NONE;
+        for (int n : numbers) {
+            mask = add(mask, n);
+        }
+        return mask;
+    }
+}
@@ -1,44 +1,77 @@
 package leonardo.savona.sudoku.model;
 
-import leonardo.savona.sudoku.util.SudokuUtils;
 
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.Objects;
 import java.util.Set;
 
+/**
+ * Vista su una cella di un {@link Sudoku}: valore, candidati e note vivono negli array della griglia.
+ */
 public class Cell {
 
-    private final Coordinate coordinate;
     private final Sudoku sudoku;
-    private int value;
-    private Set<Integer> possibleValues = new HashSet<>();
-    private boolean fixed;
-    private final NoteSet notes = new NoteSet();
-
-    public Cell(Coordinate coordinate, int value, Sudoku sudoku) {
-        this.coordinate = coordinate;
-        this.value = value;
+    private final int index;
+    private final Coordinate coordinate;
+    private final NoteSet notes;
+
+    Cell(Sudoku sudoku, int index) {
         this.sudoku = sudoku;
+        this.index = index;
+        this.coordinate = sudoku.getTopology().getCoordinate(index);
+        this.notes = new NoteSet(sudoku, index);
     }
 
     public Coordinate getCoordinate() {
         return coordinate;
     }
 
+    public int getIndex() {
+        return index;
+    }
+
     public int getValue() {
-        return value;
+        return sudoku.getValueAt(index);
     }
 
+    /**
+     * Vista in sola lettura dei candidati, mantenuta per i chiamanti che lavorano ancora con i Set.
+     * Le strategie usano {@link #getCandidates()}.
+     */
     public Set<Integer> getPossibleValues() {
-        return possibleValues;
+        return Collections.unmodifiableSet(Candidates.toSet(getCandidates()));
+    }
+
+    public long getCandidates() {
+        return sudoku.getCandidatesAt(index);
+    }
+
+    public void setCandidates(long candidates) {
+        sudoku.setCandidatesAt(index, candidates);
+    }
+
+    public boolean hasCandidate(int number) {
+        return Candidates.contains(getCandidates(), number);
+    }
+
+    public int getCandidatesCount() {
+        return Candidates.count(getCandidates());
+    }
+
+    public void intersectCandidates(long mask) {
+        setCandidates(getCandidates() & mask);
+    }
+
+    public void removeCandidates(long mask) {
+        setCandidates(getCandidates() & ~mask);
     }
 
     public boolean isFixed() {
-        return fixed;
+        return sudoku.isFixedAt(index);
     }
 
     public void setFixed(boolean fixed) {
-        this.fixed = fixed;
+        sudoku.setFixedAt(index, fixed);
     }
 
     public NoteSet getNotes() {
@@ -53,45 +86,39 @@ public class Cell {
         notes.toggleNote(number);
     }
 
-    public void addPossibleValue(Integer possibleValue) {
-        possibleValues.add(possibleValue);
+    public void addPossibleValue(int possibleValue) {
+        setCandidates(Candidates.add(getCandidates(), possibleValue));
     }
 
     public void clearPossibleValues() {
-        possibleValues.clear();
+        setCandidates(Candidates.NONE);
     }
 
-    public void removePossibleValue(Integer value) {
-        possibleValues.remove(value);
+    public void removePossibleValue(int value) {
+        setCandidates(Candidates.remove(getCandidates(), value));
     }
 
     public void setPossibleValues(Set<Integer> possibleValues) {
-        this.possibleValues = possibleValues;
+        setCandidates(Candidates.fromCollection(possibleValues));
     }
 
     public void setValue(Integer value) {
-        this.value = value;
+        sudoku.writeValue(index, value);
     }
 
     public boolean isNumberFound() {
-        if (getPossibleValues().size() == 1) {
-            setValue((Integer) getPossibleValues().toArray()[0]);
-            clearPossibleValues();
-            SudokuUtils.clearOtherCellsPossibleValues(this, sudoku);
-            return true;
-        }
-        return false;
+        return sudoku.getPropagator().settle(index);
     }
 
     public boolean isEmpty() {
-        return getValue() == 0 && getPossibleValues().isEmpty();
+        return getValue() == 0 && getCandidates() == Candidates.NONE;
     }
 
     @Override
     public String toString() {
         return "Cell{" + coordinate +
-                ", value=" + value +
-                ", possibleValues=" + possibleValues +
+                ", value=" + getValue() +
+                ", possibleValues=" + Candidates.toSet(getCandidates()) +
                 '}';
     }
 
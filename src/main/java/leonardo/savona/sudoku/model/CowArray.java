@@ -0,0 +1,87 @@
+package leonardo.savona.sudoku.model;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * Array diviso in pagine condivise tra le copie di una board; {@code P} è il tipo della pagina
+ * ({@code long[]}, {@code byte[]}). Una copia condivide tutte le pagine; la prima scrittura su una pagina
+ * non posseduta la duplica, quindi il costo di una copia è proporzionale alle pagine modificate dopo,
+ * non alla dimensione.
+ * <p>
+ * {@link #share()} scrive i flag di proprietà della sorgente: fare una copia è una modifica della
+ * sorgente e non è thread-safe. Chi copia da un altro thread deve sincronizzarsi con chi scrive.
+ */
+abstract class CowArray<P> {
+
+    static final int PAGE_SHIFT = 4;
+    static final int PAGE_MASK = (1 << PAGE_SHIFT) - 1;
+
+    private final int length;
+    private final Object[] pages;
+    private final boolean[] owned;
+
+    CowArray(int length, IntFunction<P> newPage) {
+        this.length = length;
+        int pageCount = (length + PAGE_MASK) >>> PAGE_SHIFT;
+        this.pages = new Object[pageCount];
+        for (int p = 0; p < pageCount; p++) {
+            pages[p] = newPage.apply(1 << PAGE_SHIFT);
+        }
+        this.owned = new boolean[pageCount];
+        Arrays.fill(owned, true);
+    }
+
+    CowArray(CowArray<P> source) {
+        this.length = source.length;
+        this.pages = source.pages.clone();
+        this.owned = new boolean[pages.length];
+    }
+
+    final int length() {
+        return length;
+    }
+
+    /**
+     * Pagina che contiene l'indice, in sola lettura.
+     */
+    @SuppressWarnings("unchecked")
+    final P page(int index) {
+        return (P) pages[index >>> PAGE_SHIFT];
+    }
+
+    /**
+     * Pagina che contiene l'indice, duplicata prima se è condivisa.
+     */
+    final P writablePage(int index) {
+        int page = index >>> PAGE_SHIFT;
+        if (!owned[page]) {
+            pages[page] = copyPage(page(index));
+            owned[page] = true;
+        }
+        return page(index);
+    }
+
+    /**
+     * Da qui in poi questa istanza non scrive più sulle pagine attuali, che possono passare a una copia.
+     */
+    final void share() {
+        Arrays.fill(owned, false);
+    }
+
+    final boolean contentEquals(CowArray<P> other) {
+        if (length != other.length) {
+            return false;
+        }
+        for (int p = 0; p < pages.length; p++) {
+            if (pages[p] != other.pages[p] && !pageEquals(page(p << PAGE_SHIFT), other.page(p << PAGE_SHIFT))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    abstract P copyPage(P page);
+
+    abstract boolean pageEquals(P first, P second);
+}
@@ -0,0 +1,45 @@
+package leonardo.savona.sudoku.model;
+
+import java.util.Arrays;
+
+/**
+ * Array di byte a pagine condivise tra le copie di una board (vedi {@link CowArray}).
+ */
+final class CowByteArray extends CowArray<byte[]> {
+
+    CowByteArray(int length) {
+        super(length, byte[]::new);
+    }
+
+    private CowByteArray(CowByteArray source) {
+        super(source);
+    }
+
+    byte get(int index) {
+        return page(index)[index & PAGE_MASK];
+    }
+
+    void set(int index, byte value) {
+        if (get(index) != value) {
+            writablePage(index)[index & PAGE_MASK] = value;
+        }
+    }
+
+    /**
+     * Copia che condivide le pagine: da qui in poi né questa istanza né la copia possono scriverci sopra.
+     */
+    CowByteArray snapshot() {
+        share();
+        return new CowByteArray(this);
+    }
+
+    @Override
+    byte[] copyPage(byte[] page) {
+        return page.clone();
+    }
+
+    @Override
+    boolean pageEquals(byte[] first, byte[] second) {
+        return Arrays.equals(first, second);
+    }
+}
@@ -0,0 +1,45 @@
+package leonardo.savona.sudoku.model;
+
+import java.util.Arrays;
+
+/**
+ * Array di long a pagine condivise tra le copie di una board (vedi {@link CowArray}).
+ */
+final class CowLongArray extends CowArray<long[]> {
+
+    CowLongArray(int length) {
+        super(length, long[]::new);
+    }
+
+    private CowLongArray(CowLongArray source) {
+        super(source);
+    }
+
+    long get(int index) {
+        return page(index)[index & PAGE_MASK];
+    }
+
+    void set(int index, long value) {
+        if (get(index) != value) {
+            writablePage(index)[index & PAGE_MASK] = value;
+        }
+    }
+
+    /**
+     * Copia che condivide le pagine: da qui in poi né questa istanza né la copia possono scriverci sopra.
+     */
+    CowLongArray snapshot() {
+        share();
+        return new CowLongArray(this);
+    }
+
+    @Override
+    long[] copyPage(long[] page) {
+        return page.clone();
+    }
+
+    @Override
+    boolean pageEquals(long[] first, long[] second) {
+        return Arrays.equals(first, second);
+    }
+}
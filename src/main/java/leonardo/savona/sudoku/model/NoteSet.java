@@ -1,44 +1,53 @@
 package leonardo.savona.sudoku.model;
 
-import java.util.Arrays;
-
+/**
+ * Note di una cella, lette e scritte direttamente nella bitmask della griglia.
+ */
 public class NoteSet {
 
-    private final boolean[] notes = new boolean[9]; // index 0 -> numero 1, index 8 -> numero 9
+    private final Sudoku sudoku;
+    private final int index;
+
+    NoteSet(Sudoku sudoku, int index) {
+        this.sudoku = sudoku;
+        this.index = index;
+    }
 
     public void setNote(int number, boolean present) {
-        if (number < 1 || number > 9) {
+        if (number < 1 || number > sudoku.getSize()) {
             throw new IllegalArgumentException("Numero nota fuori range: " + number);
         }
-        notes[number - 1] = present;
+        long notes = sudoku.getNotesAt(index);
+        sudoku.setNotesAt(index, present ? Candidates.add(notes, number) : Candidates.remove(notes, number));
     }
 
     public boolean hasNote(int number) {
-        if (number < 1 || number > 9) {
+        if (number < 1 || number > sudoku.getSize()) {
             return false;
         }
-        return notes[number - 1];
+        return Candidates.contains(sudoku.getNotesAt(index), number);
     }
 
     public void toggleNote(int number) {
-        if (number < 1 || number > 9) {
+        if (number < 1 || number > sudoku.getSize()) {
             return;
         }
-        notes[number - 1] = !notes[number - 1];
+        sudoku.setNotesAt(index, sudoku.getNotesAt(index) ^ Candidates.of(number));
     }
 
     public void clear() {
-        Arrays.fill(notes, false);
+        sudoku.setNotesAt(index, Candidates.NONE);
     }
 
     public boolean isEmpty() {
-        for (boolean b : notes) {
-            if (b) return false;
-        }
-        return true;
+        return sudoku.getNotesAt(index) == Candidates.NONE;
     }
 
     public boolean[] getAll() {
-        return Arrays.copyOf(notes, notes.length);
+        boolean[] all = new boolean[sudoku.getSize()];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = hasNote(i + 1);
+        }
+        return all;
     }
 }
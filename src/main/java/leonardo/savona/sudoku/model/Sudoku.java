@@ -2,33 +2,107 @@ package leonardo.savona.sudoku.model;
 
 import leonardo.savona.sudoku.model.square.Square;
 import leonardo.savona.sudoku.util.SudokuModelConverter;
-import leonardo.savona.sudoku.util.SudokuUtils;
 
 import java.util.*;
 
-public class Sudoku {
+/**
+ * Griglia del sudoku memorizzata in array primitivi indicizzati con {@code r * size + c}.
+ * Le {@link Cell} sono viste leggere su questi array e vengono create solo alla prima richiesta.
+ */
+public class Sudoku implements BoardView {
 
     public static final int DEFAULT_SIZE = 9;
 
-    private final List<Cell> sudoku = new ArrayList<>();
-    private final Map<Coordinate, Cell> cellsByCoordinate = new HashMap<>();
-    private final Set<Square> squares;
-    private final Map<Coordinate, Set<Coordinate>> coordinatesSquares;
     private final int size;
+    private final Topology topology;
+    private final CowByteArray values;
+    private final CowLongArray candidates;
+    private final CowLongArray notes;
+    private final CowByteArray fixed;
+
+    // occupazione delle unità, aggiornata a ogni scrittura di un valore
+    private final CowLongArray unitMasks;
+    private final CowByteArray unitCounts;
+    private final int[] numberCounts;
+    private int filledCount;
+    private int conflictCount;
+
+    // bitboard per numero (bit i = la cella vuota i ha il numero tra i candidati), posizioni dei
+    // candidati dentro ogni unità e celle vuote con candidati non ancora calcolati
+    private final CowLongArray digitBoards;
+    private final CowLongArray unitPositions;
+    private final CowLongArray pendingCells;
+
+    // hash Zobrist dei valori e dei candidati, aggiornati a ogni modifica
+    private long valuesHash;
+    private long candidatesHash;
+
+    // registro delle modifiche, attivo solo dopo il primo mark()
+    private Trail trail;
+
+    // listener e modifiche ancora da consegnare; senza listener non si registra nulla
+    private List<SudokuListener> listeners;
+    private List<SudokuChange> pendingChanges;
+    private int batchDepth;
+
+    // viste e strutture derivate, costruite solo se qualcuno le chiede
+    private Cell[] cells;
+    private List<Cell> cellList;
+    private Square[] squares;
+    private Set<Square> squareSet;
+    private CandidatePropagator propagator;
 
     public Sudoku() {
         this(DEFAULT_SIZE);
     }
 
     public Sudoku(int size) {
-        this.size = size;
-        for (int r = 0; r < size; r++) {
-            for (int c = 0; c < size; c++) {
-                addCell(new Coordinate(r, c), 0);
-            }
+        this(BoxGeometry.forSize(size));
+    }
+
+    public Sudoku(BoxGeometry geometry) {
+        if (geometry.getSize() > Candidates.MAX_NUMBER) {
+            throw new IllegalArgumentException("Griglia troppo grande: " + geometry.getSize());
+        }
+        this.size = geometry.getSize();
+        this.topology = Topology.of(geometry);
+        int cellCount = topology.getCellCount();
+        this.values = new CowByteArray(cellCount);
+        this.candidates = new CowLongArray(cellCount);
+        this.notes = new CowLongArray(cellCount);
+        this.fixed = new CowByteArray(cellCount);
+        this.unitMasks = new CowLongArray(topology.getUnitCount());
+        this.unitCounts = new CowByteArray(topology.getUnitCount() * size);
+        this.numberCounts = new int[size + 1];
+        int words = topology.getWordCount();
+        this.digitBoards = new CowLongArray(size * words);
+        this.unitPositions = new CowLongArray(topology.getUnitCount() * size);
+        this.pendingCells = new CowLongArray(words);
+        for (int i = 0; i < cellCount; i++) {
+            pendingCells.set(i >>> 6, pendingCells.get(i >>> 6) | 1L << i);
         }
-        this.coordinatesSquares = SudokuUtils.getCoordinatesSquare(size);
-        this.squares = SudokuUtils.getSquares(this, coordinatesSquares);
+    }
+
+    /**
+     * Copia che condivide le pagine della sorgente (vedi {@link CowArray}).
+     */
+    private Sudoku(Sudoku source) {
+        this.size = source.size;
+        this.topology = source.topology;
+        this.values = source.values.snapshot();
+        this.candidates = source.candidates.snapshot();
+        this.notes = source.notes.snapshot();
+        this.fixed = source.fixed.snapshot();
+        this.unitMasks = source.unitMasks.snapshot();
+        this.unitCounts = source.unitCounts.snapshot();
+        this.numberCounts = source.numberCounts.clone();
+        this.digitBoards = source.digitBoards.snapshot();
+        this.unitPositions = source.unitPositions.snapshot();
+        this.pendingCells = source.pendingCells.snapshot();
+        this.filledCount = source.filledCount;
+        this.conflictCount = source.conflictCount;
+        this.valuesHash = source.valuesHash;
+        this.candidatesHash = source.candidatesHash;
     }
 
     public Sudoku(int[][] values) {
@@ -37,69 +111,378 @@ public class Sudoku {
             for (int c = 0; c < size; c++) {
                 int value = values[r][c];
                 if (value != 0) {
-                    getCellByCoordinate(new Coordinate(r, c)).setValue(value);
+                    writeValue(indexOf(r, c), value);
                 }
             }
         }
     }
 
-    private void addCell(Coordinate coordinate, int value) {
-        Cell cell = new Cell(coordinate, value, this);
-        sudoku.add(cell);
-        cellsByCoordinate.put(coordinate, cell);
-    }
-
+    @Override
     public int getSize() {
         return this.size;
     }
 
     public List<Cell> getSudoku() {
-        return sudoku;
+        if (cellList == null) {
+            cellList = Collections.unmodifiableList(Arrays.asList(getCells()));
+        }
+        return cellList;
+    }
+
+    private Cell[] getCells() {
+        if (cells == null) {
+            Cell[] created = new Cell[values.length()];
+            for (int i = 0; i < created.length; i++) {
+                created[i] = new Cell(this, i);
+            }
+            cells = created;
+        }
+        return cells;
+    }
+
+    public Topology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Coda di propagazione dei candidati di questa board, creata alla prima richiesta.
+     */
+    public CandidatePropagator getPropagator() {
+        if (propagator == null) {
+            propagator = new CandidatePropagator(this);
+        }
+        return propagator;
+    }
+
+    @Override
+    public BoxGeometry getGeometry() {
+        return topology.getGeometry();
     }
 
     public Set<Square> getSquares() {
-        return squares;
+        if (squareSet == null) {
+            Square[] created = new Square[size];
+            Cell[] all = getCells();
+            for (int b = 0; b < size; b++) {
+                Set<Cell> boxCells = new HashSet<>();
+                for (int index : topology.getUnit(topology.boxUnit(b))) {
+                    boxCells.add(all[index]);
+                }
+                created[b] = new Square(boxCells);
+            }
+            squares = created;
+            squareSet = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(created)));
+        }
+        return squareSet;
+    }
+
+    /**
+     * Quadrato che contiene la cella indicata.
+     */
+    public Square getSquareAt(int index) {
+        getSquares();
+        return squares[topology.boxOf(index)];
     }
 
     public Map<Coordinate, Set<Coordinate>> getCoordinatesSquares() {
-        return coordinatesSquares;
+        return topology.getCoordinatesSquares();
     }
 
     public Cell getCell(int row, int column) {
         checkBounds(row, column);
-        return getCellByCoordinate(new Coordinate(row, column));
+        return getCells()[indexOf(row, column)];
     }
 
     public Cell getCellByCoordinate(Coordinate coordinate) {
-        Cell cell = cellsByCoordinate.get(coordinate);
-        if (cell == null) {
+        int row = coordinate.getRow();
+        int column = coordinate.getColumn();
+        if (row < 0 || row >= size || column < 0 || column >= size) {
             throw new IllegalArgumentException("Coordinate out of bounds: " + coordinate);
         }
-        return cell;
+        return getCells()[indexOf(row, column)];
     }
 
+    public int indexOf(int row, int column) {
+        return row * size + column;
+    }
+
+    @Override
     public int getValue(int row, int column) {
-        return getCell(row, column).getValue();
+        checkBounds(row, column);
+        return values.get(indexOf(row, column));
+    }
+
+    public int getValueAt(int index) {
+        return values.get(index);
+    }
+
+    public long getCandidatesAt(int index) {
+        return candidates.get(index);
+    }
+
+    public void setCandidatesAt(int index, long mask) {
+        long old = candidates.get(index);
+        if (old == mask) {
+            return;
+        }
+        if (trail != null) {
+            trail.record(Trail.CANDIDATES, index, old, mask);
+        }
+        applyCandidates(index, mask);
+    }
+
+    private void applyCandidates(int index, long mask) {
+        long changed = candidates.get(index) ^ mask;
+        for (long m = changed; m != 0; m = Candidates.withoutLowest(m)) {
+            candidatesHash ^= topology.candidateKey(index, Candidates.lowest(m));
+        }
+        changed(SudokuChange.Kind.CANDIDATES, index, candidates.get(index), mask);
+        candidates.set(index, mask);
+        if (values.get(index) == 0) {
+            flipBoards(index, changed);
+            updatePending(index);
+        }
+    }
+
+    /**
+     * Inverte, nei bitboard e nelle posizioni per unità, i bit della cella per i numeri della maschera.
+     */
+    private void flipBoards(int index, long numbers) {
+        int words = topology.getWordCount();
+        int word = index >>> 6;
+        long bit = 1L << index;
+        int[] units = topology.unitsOf(index);
+        for (long m = numbers; m != 0; m = Candidates.withoutLowest(m)) {
+            int number = Candidates.lowest(m);
+            int slot = (number - 1) * words + word;
+            digitBoards.set(slot, digitBoards.get(slot) ^ bit);
+            for (int j = 0; j < units.length; j++) {
+                int position = units[j] * size + number - 1;
+                unitPositions.set(position, unitPositions.get(position) ^ 1L << topology.positionInUnit(index, j));
+            }
+        }
+    }
+
+    private void updatePending(int index) {
+        int word = index >>> 6;
+        long bit = 1L << index;
+        long current = pendingCells.get(word);
+        long updated = values.get(index) == 0 && candidates.get(index) == Candidates.NONE ? current | bit : current & ~bit;
+        if (updated != current) {
+            pendingCells.set(word, updated);
+        }
     }
 
+    public boolean isFixedAt(int index) {
+        return fixed.get(index) != 0;
+    }
+
+    @Override
     public boolean isFixed(int row, int column) {
-        return getCell(row, column).isFixed();
+        checkBounds(row, column);
+        return fixed.get(indexOf(row, column)) != 0;
     }
 
     public NoteSet getNotes(int row, int column) {
         return getCell(row, column).getNotes();
     }
 
+    @Override
+    public boolean hasNote(int row, int column, int number) {
+        checkBounds(row, column);
+        return Candidates.contains(notes.get(indexOf(row, column)), number);
+    }
+
+    @Override
+    public boolean hasNotes(int row, int column) {
+        checkBounds(row, column);
+        return notes.get(indexOf(row, column)) != Candidates.NONE;
+    }
+
     public void toggleNote(int row, int column, int number) {
-        Cell cell = getCell(row, column);
-        if (cell.isFixed()) {
+        checkBounds(row, column);
+        int index = indexOf(row, column);
+        if (fixed.get(index) != 0) {
             return;
         }
-        cell.toggleNote(number);
+        if (number >= 1 && number <= size) {
+            setNotesAt(index, notes.get(index) ^ Candidates.of(number));
+        }
     }
 
     public void clearNotes(int row, int column) {
-        getCell(row, column).clearNotes();
+        checkBounds(row, column);
+        setNotesAt(indexOf(row, column), Candidates.NONE);
+    }
+
+    long getNotesAt(int index) {
+        return notes.get(index);
+    }
+
+    void setNotesAt(int index, long mask) {
+        long old = notes.get(index);
+        if (old == mask) {
+            return;
+        }
+        if (trail != null) {
+            trail.record(Trail.NOTES, index, old, mask);
+        }
+        applyNotes(index, mask);
+    }
+
+    private void applyNotes(int index, long mask) {
+        changed(SudokuChange.Kind.NOTES, index, notes.get(index), mask);
+        notes.set(index, mask);
+    }
+
+    void setFixedAt(int index, boolean fixedValue) {
+        byte value = (byte) (fixedValue ? 1 : 0);
+        byte old = fixed.get(index);
+        if (old == value) {
+            return;
+        }
+        if (trail != null) {
+            trail.record(Trail.FIXED, index, old, value);
+        }
+        applyFixed(index, value);
+    }
+
+    private void applyFixed(int index, byte value) {
+        changed(SudokuChange.Kind.FIXED, index, fixed.get(index), value);
+        fixed.set(index, value);
+    }
+
+    /**
+     * Unico punto in cui cambia il valore di una cella.
+     */
+    void writeValue(int index, int value) {
+        int old = values.get(index);
+        if (old == value) {
+            return;
+        }
+        if (trail != null) {
+            trail.record(Trail.VALUE, index, old, value);
+        }
+        applyValue(index, value);
+    }
+
+    /**
+     * Scrive il valore tenendo allineate le maschere di occupazione e l'hash, senza registrarlo.
+     */
+    private void applyValue(int index, int value) {
+        int old = values.get(index);
+        changed(SudokuChange.Kind.VALUE, index, old, value);
+        if (old != 0) {
+            for (int unit : topology.unitsOf(index)) {
+                int slot = unit * size + old - 1;
+                int count = unitCounts.get(slot) - 1;
+                unitCounts.set(slot, (byte) count);
+                if (count == 1) {
+                    conflictCount--;
+                } else if (count == 0) {
+                    unitMasks.set(unit, unitMasks.get(unit) & ~Candidates.of(old));
+                }
+            }
+            numberCounts[old]--;
+            filledCount--;
+        }
+        values.set(index, (byte) value);
+        valuesHash ^= topology.valueKey(index, old) ^ topology.valueKey(index, value);
+        if ((old == 0) != (value == 0)) {
+            // i candidati di una cella piena non contano nei bitboard
+            flipBoards(index, candidates.get(index));
+            updatePending(index);
+        }
+        if (value != 0) {
+            for (int unit : topology.unitsOf(index)) {
+                int slot = unit * size + value - 1;
+                int count = unitCounts.get(slot) + 1;
+                unitCounts.set(slot, (byte) count);
+                if (count == 2) {
+                    conflictCount++;
+                } else if (count == 1) {
+                    unitMasks.set(unit, unitMasks.get(unit) | Candidates.of(value));
+                }
+            }
+            numberCounts[value]++;
+            filledCount++;
+        }
+    }
+
+    /**
+     * Numeri già presenti nell'unità (vedi {@link Topology}) come bitmask.
+     */
+    public long getUnitMask(int unit) {
+        return unitMasks.get(unit);
+    }
+
+    /**
+     * Parola {@code word} del bitboard del numero: bit {@code i} acceso se la cella {@code i}
+     * è vuota e ha il numero tra i candidati.
+     */
+    public long getDigitBoard(int number, int word) {
+        return digitBoards.get((number - 1) * topology.getWordCount() + word);
+    }
+
+    /**
+     * Posizioni dell'unità (bit {@code k} = k-esima cella di {@link Topology#getUnit(int)}) in cui
+     * il numero è ancora candidato in una cella vuota.
+     */
+    public long getUnitPositions(int unit, int number) {
+        return unitPositions.get(unit * size + number - 1);
+    }
+
+    /**
+     * In quante celle vuote dell'unità il numero è ancora candidato.
+     */
+    public int countInUnit(int unit, int number) {
+        return Long.bitCount(getUnitPositions(unit, number));
+    }
+
+    /**
+     * Vero se l'unità contiene celle vuote i cui candidati non sono ancora stati calcolati.
+     */
+    public boolean hasPendingCells(int unit) {
+        long[] bits = topology.getUnitBits(unit);
+        for (int w = 0; w < bits.length; w++) {
+            if ((pendingCells.get(w) & bits[w]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Quante volte il numero compare nella griglia.
+     */
+    public int getNumberCount(int number) {
+        return numberCounts[number];
+    }
+
+    /**
+     * Hash Zobrist a 64 bit dei soli valori: coerente con {@link #equals(Object)}.
+     */
+    public long longHash() {
+        return valuesHash;
+    }
+
+    /**
+     * Hash Zobrist a 64 bit di valori e candidati, per distinguere stati intermedi del risolutore.
+     */
+    public long stateHash() {
+        return valuesHash ^ candidatesHash;
+    }
+
+    public int getFilledCount() {
+        return filledCount;
+    }
+
+    public boolean hasConflicts() {
+        return conflictCount > 0;
+    }
+
+    public boolean isComplete() {
+        return filledCount == values.length() && conflictCount == 0;
     }
 
     public void setValue(int row, int column, int value) {
@@ -111,27 +494,174 @@ public class Sudoku {
         if (value < 0 || value > size) {
             throw new IllegalArgumentException("Valore non valido: " + value);
         }
-        Cell cell = getCell(row, column);
-        if (value == 0) {
-            cell.setValue(0);
-            cell.clearNotes();
-            cell.setFixed(false);
+        int index = indexOf(row, column);
+        beginBatch();
+        try {
+            if (value == 0) {
+                writeValue(index, 0);
+                setNotesAt(index, Candidates.NONE);
+                setFixedAt(index, false);
+                return;
+            }
+
+            getPropagator().place(index, value);
+            setFixedAt(index, fixedValue);
+            setNotesAt(index, Candidates.NONE);
+        } finally {
+            endBatch();
+        }
+    }
+
+    public void clearValue(int row, int column) {
+        checkBounds(row, column);
+        int index = indexOf(row, column);
+        if (fixed.get(index) != 0) {
             return;
         }
+        beginBatch();
+        try {
+            writeValue(index, 0);
+            setNotesAt(index, Candidates.NONE);
+        } finally {
+            endBatch();
+        }
+    }
 
-        cell.setValue(value);
-        cell.setFixed(fixedValue);
-        cell.clearNotes();
-        SudokuUtils.clearOtherCellsPossibleValues(cell, this);
+    public void addListener(SudokuListener listener) {
+        if (listeners == null) {
+            listeners = new ArrayList<>();
+            pendingChanges = new ArrayList<>();
+        }
+        listeners.add(listener);
     }
 
-    public void clearValue(int row, int column) {
-        Cell cell = getCell(row, column);
-        if (cell.isFixed()) {
+    public void removeListener(SudokuListener listener) {
+        if (listeners != null) {
+            listeners.remove(listener);
+        }
+    }
+
+    /**
+     * Da qui al corrispondente {@link #endBatch()} le modifiche vengono accumulate e consegnate
+     * ai listener in un solo evento. Le chiamate possono essere annidate.
+     */
+    public void beginBatch() {
+        batchDepth++;
+    }
+
+    public void endBatch() {
+        if (batchDepth == 0) {
+            throw new IllegalStateException("endBatch senza beginBatch");
+        }
+        if (--batchDepth == 0) {
+            flushChanges();
+        }
+    }
+
+    private void changed(SudokuChange.Kind kind, int index, long before, long after) {
+        if (listeners == null || listeners.isEmpty()) {
             return;
         }
-        cell.setValue(0);
-        cell.clearNotes();
+        pendingChanges.add(new SudokuChange(kind, index, topology.rowOf(index), topology.columnOf(index), before, after));
+        if (batchDepth == 0) {
+            flushChanges();
+        }
+    }
+
+    private void flushChanges() {
+        if (pendingChanges == null || pendingChanges.isEmpty()) {
+            return;
+        }
+        SudokuChangeEvent event = new SudokuChangeEvent(this, new ArrayList<>(pendingChanges));
+        pendingChanges.clear();
+        for (SudokuListener listener : new ArrayList<>(listeners)) {
+            listener.sudokuChanged(event);
+        }
+    }
+
+    /**
+     * Attiva il registro delle modifiche (se non lo è già) e restituisce la posizione corrente,
+     * da passare poi a {@link #undoTo(int)} o {@link #redoTo(int)}.
+     */
+    public int mark() {
+        if (trail == null) {
+            trail = new Trail();
+        }
+        return trail.position();
+    }
+
+    /**
+     * Annulla, in ordine inverso, tutte le modifiche registrate dopo il mark indicato.
+     */
+    public void undoTo(int mark) {
+        if (mark < 0) {
+            throw new IllegalArgumentException("Mark non valido: " + mark);
+        }
+        if (trail == null) {
+            return;
+        }
+        beginBatch();
+        try {
+            while (trail.position() > mark) {
+                trail.stepBack();
+                int entry = trail.position();
+                restore(trail.kindAt(entry), trail.indexAt(entry), trail.beforeAt(entry));
+            }
+        } finally {
+            endBatch();
+        }
+    }
+
+    /**
+     * Riapplica le modifiche annullate fino al mark indicato, se nel frattempo non ne sono state fatte altre.
+     */
+    public void redoTo(int mark) {
+        if (trail == null) {
+            return;
+        }
+        beginBatch();
+        try {
+            while (trail.position() < mark && trail.position() < trail.end()) {
+                int entry = trail.position();
+                restore(trail.kindAt(entry), trail.indexAt(entry), trail.afterAt(entry));
+                trail.stepForward();
+            }
+        } finally {
+            endBatch();
+        }
+    }
+
+    /**
+     * Posizione oltre la quale non ci sono modifiche da ripetere.
+     */
+    public int getRedoLimit() {
+        return trail == null ? 0 : trail.end();
+    }
+
+    /**
+     * Svuota il registro e smette di registrare.
+     */
+    public void clearTrail() {
+        trail = null;
+    }
+
+    private void restore(byte kind, int index, long value) {
+        switch (kind) {
+            case Trail.VALUE:
+                applyValue(index, (int) value);
+                break;
+            case Trail.CANDIDATES:
+                applyCandidates(index, value);
+                break;
+            case Trail.NOTES:
+                applyNotes(index, value);
+                break;
+            case Trail.FIXED:
+                applyFixed(index, (byte) value);
+                break;
+            default:
+                throw new IllegalStateException("Voce sconosciuta nel registro: " + kind);
+        }
     }
 
     public boolean isCellEmpty(int row, int column) {
@@ -142,52 +672,42 @@ public class Sudoku {
         if (value == 0) {
             return true;
         }
-        for (int c = 0; c < size; c++) {
-            if (c != column && getValue(row, c) == value) {
-                return false;
-            }
-        }
-        for (int r = 0; r < size; r++) {
-            if (r != row && getValue(r, column) == value) {
+        checkBounds(row, column);
+        int index = indexOf(row, column);
+        int own = values.get(index) == value ? 1 : 0;
+        for (int unit : topology.unitsOf(index)) {
+            if (unitCounts.get(unit * size + value - 1) - own > 0) {
                 return false;
             }
         }
-        int sq = (int) Math.sqrt(size);
-        int baseRow = (row / sq) * sq;
-        int baseCol = (column / sq) * sq;
-        for (int r = baseRow; r < baseRow + sq; r++) {
-            for (int c = baseCol; c < baseCol + sq; c++) {
-                if ((r != row || c != column) && getValue(r, c) == value) {
-                    return false;
-                }
-            }
-        }
         return true;
     }
 
+    @Override
     public boolean isCellInConflict(int row, int column) {
-        int value = getValue(row, column);
-        return value != 0 && !isValueAllowed(row, column, value);
+        checkBounds(row, column);
+        int index = indexOf(row, column);
+        int value = values.get(index);
+        if (value == 0) {
+            return false;
+        }
+        for (int unit : topology.unitsOf(index)) {
+            if (unitCounts.get(unit * size + value - 1) > 1) {
+                return true;
+            }
+        }
+        return false;
     }
 
+    /**
+     * Copia indipendente della board. Le due board condividono le pagine dei dati finché
+     * una delle due non le modifica, quindi la copia costa quanto le pagine toccate in seguito.
+     * <p>
+     * Non è thread-safe: la copia segna come condivise le pagine della sorgente, quindi è una scrittura
+     * sulla sorgente. Va fatta dal thread che modifica la board, o sincronizzandosi con lui.
+     */
     public Sudoku copy() {
-        Sudoku copy = new Sudoku(size);
-        for (Cell cell : sudoku) {
-            Coordinate coordinate = cell.getCoordinate();
-            Cell copyCell = copy.getCellByCoordinate(coordinate);
-            copyCell.setValue(cell.getValue());
-            copyCell.setFixed(cell.isFixed());
-            copyCell.setPossibleValues(new HashSet<>(cell.getPossibleValues()));
-            if (!cell.getNotes().isEmpty()) {
-                boolean[] notes = cell.getNotes().getAll();
-                for (int i = 0; i < notes.length; i++) {
-                    if (notes[i]) {
-                        copyCell.getNotes().setNote(i + 1, true);
-                    }
-                }
-            }
-        }
-        return copy;
+        return new Sudoku(this);
     }
 
     @Override
@@ -200,16 +720,12 @@ public class Sudoku {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Sudoku sudoku1 = (Sudoku) o;
-        for (Cell cell : sudoku) {
-            Cell sudoku1Cell = sudoku1.getCellByCoordinate(cell.getCoordinate());
-            if (cell.getValue() != sudoku1Cell.getValue()) return false;
-        }
-        return true;
+        return size == sudoku1.size && valuesHash == sudoku1.valuesHash && values.contentEquals(sudoku1.values);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(sudoku);
+        return Long.hashCode(valuesHash);
     }
 
     private void checkBounds(int row, int column) {
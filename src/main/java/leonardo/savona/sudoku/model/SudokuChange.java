@@ -0,0 +1,70 @@
+package leonardo.savona.sudoku.model;
+
+/**
+ * Singola modifica di una cella: cosa è cambiato, dove, e il valore prima e dopo.
+ * Per {@link Kind#VALUE} i valori sono numeri (0 = vuota), per candidati e note sono bitmask
+ * (vedi {@link Candidates}), per {@link Kind#FIXED} valgono 0 o 1.
+ */
+public final class SudokuChange {
+
+    public enum Kind { VALUE, CANDIDATES, NOTES, FIXED }
+
+    private final Kind kind;
+    private final int index;
+    private final int row;
+    private final int column;
+    private final long before;
+    private final long after;
+
+    SudokuChange(Kind kind, int index, int row, int column, long before, long after) {
+        this.kind = kind;
+        this.index = index;
+        this.row = row;
+        this.column = column;
+        this.before = before;
+        this.after = after;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public int getColumn() {
+        return column;
+    }
+
+    public long getBefore() {
+        return before;
+    }
+
+    public long getAfter() {
+        return after;
+    }
+
+    /**
+     * Candidati (o note) tolti dalla modifica, come bitmask.
+     */
+    public long getRemoved() {
+        return before & ~after;
+    }
+
+    /**
+     * Candidati (o note) aggiunti dalla modifica, come bitmask.
+     */
+    public long getAdded() {
+        return after & ~before;
+    }
+
+    @Override
+    public String toString() {
+        return kind + "{" + row + "," + column + ": " + before + " -> " + after + '}';
+    }
+}
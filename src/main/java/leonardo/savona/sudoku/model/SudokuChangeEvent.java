@@ -0,0 +1,36 @@
+package leonardo.savona.sudoku.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Modifiche fatte da una singola operazione sulla board (un inserimento con la pulizia dei
+ * candidati vicini, un annullamento...), consegnate insieme ai listener.
+ */
+public final class SudokuChangeEvent {
+
+    private final Sudoku source;
+    private final List<SudokuChange> changes;
+
+    SudokuChangeEvent(Sudoku source, List<SudokuChange> changes) {
+        this.source = source;
+        this.changes = Collections.unmodifiableList(changes);
+    }
+
+    public Sudoku getSource() {
+        return source;
+    }
+
+    public List<SudokuChange> getChanges() {
+        return changes;
+    }
+
+    public boolean hasValueChanges() {
+        for (SudokuChange change : changes) {
+            if (change.getKind() == SudokuChange.Kind.VALUE) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
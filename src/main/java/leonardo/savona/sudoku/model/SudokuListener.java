@@ -0,0 +1,9 @@
+package leonardo.savona.sudoku.model;
+
+/**
+ * Riceve le modifiche di una {@link Sudoku}, raggruppate per operazione.
+ */
+public interface SudokuListener {
+
+    void sudokuChanged(SudokuChangeEvent event);
+}
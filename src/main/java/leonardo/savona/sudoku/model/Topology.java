@@ -0,0 +1,246 @@
+package leonardo.savona.sudoku.model;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Struttura della griglia (righe, colonne, quadrati e vicini di ogni cella) precalcolata
+ * una sola volta per {@link BoxGeometry} e condivisa, in sola lettura, da tutte le board e le strategie.
+ * Le unità sono numerate così: righe {@code 0..size-1}, colonne {@code size..2*size-1},
+ * quadrati {@code 2*size..3*size-1}.
+ */
+public final class Topology {
+
+    private static final Map<BoxGeometry, Topology> CACHE = new ConcurrentHashMap<>();
+
+    private final int size;
+    private final BoxGeometry geometry;
+    private final int cellCount;
+    private final int[] rowOf;
+    private final int[] columnOf;
+    private final int[] boxOf;
+    private final int[][] units;
+    private final int[][] cellUnits;
+    private final int[][] peers;
+    private final int[][] boxPeers;
+    private final Coordinate[] coordinates;
+    private final Map<Coordinate, Set<Coordinate>> coordinatesSquares;
+    private final long[] valueKeys;
+    private final long[] candidateKeys;
+    private final int wordCount;
+    private final long[][] unitBits;
+    private final int[][] positionsInUnits;
+
+    private Topology(BoxGeometry geometry) {
+        this.size = geometry.getSize();
+        this.geometry = geometry;
+        this.cellCount = size * size;
+        this.rowOf = new int[cellCount];
+        this.columnOf = new int[cellCount];
+        this.boxOf = new int[cellCount];
+        this.coordinates = new Coordinate[cellCount];
+        this.units = new int[3 * size][size];
+
+        int[] filled = new int[3 * size];
+        for (int i = 0; i < cellCount; i++) {
+            int r = i / size;
+            int c = i % size;
+            int b = geometry.boxOf(r, c);
+            rowOf[i] = r;
+            columnOf[i] = c;
+            boxOf[i] = b;
+            coordinates[i] = new Coordinate(r, c);
+            units[r][filled[r]++] = i;
+            units[size + c][filled[size + c]++] = i;
+            units[2 * size + b][filled[2 * size + b]++] = i;
+        }
+
+        this.cellUnits = new int[cellCount][];
+        for (int i = 0; i < cellCount; i++) {
+            cellUnits[i] = new int[]{rowOf[i], size + columnOf[i], 2 * size + boxOf[i]};
+        }
+
+        // bitboard di ogni unità e posizione di ogni cella dentro le sue tre unità
+        this.wordCount = (cellCount + Long.SIZE - 1) / Long.SIZE;
+        this.unitBits = new long[units.length][wordCount];
+        this.positionsInUnits = new int[cellCount][3];
+        for (int u = 0; u < units.length; u++) {
+            for (int k = 0; k < size; k++) {
+                int cell = units[u][k];
+                unitBits[u][cell >>> 6] |= 1L << cell;
+                for (int j = 0; j < 3; j++) {
+                    if (cellUnits[cell][j] == u) {
+                        positionsInUnits[cell][j] = k;
+                    }
+                }
+            }
+        }
+
+        this.peers = new int[cellCount][];
+        this.boxPeers = new int[cellCount][];
+        boolean[] seen = new boolean[cellCount];
+        int[] buffer = new int[3 * size];
+        for (int i = 0; i < cellCount; i++) {
+            int count = 0;
+            for (int unit : cellUnits[i]) {
+                for (int other : units[unit]) {
+                    if (other != i && !seen[other]) {
+                        seen[other] = true;
+                        buffer[count++] = other;
+                    }
+                }
+            }
+            peers[i] = Arrays.copyOf(buffer, count);
+            for (int j = 0; j < count; j++) {
+                seen[buffer[j]] = false;
+            }
+
+            int[] box = units[2 * size + boxOf[i]];
+            int[] others = new int[box.length - 1];
+            int k = 0;
+            for (int other : box) {
+                if (other != i) others[k++] = other;
+            }
+            boxPeers[i] = others;
+        }
+
+        Map<Coordinate, Set<Coordinate>> squares = new HashMap<>();
+        for (int i = 0; i < cellCount; i++) {
+            Set<Coordinate> others = new HashSet<>();
+            for (int other : boxPeers[i]) {
+                others.add(coordinates[other]);
+            }
+            squares.put(coordinates[i], Collections.unmodifiableSet(others));
+        }
+        this.coordinatesSquares = Collections.unmodifiableMap(squares);
+
+        // chiavi Zobrist: seme fisso, così l'hash di una griglia è stabile tra un'esecuzione e l'altra
+        SplittableRandom random = new SplittableRandom(0x9E3779B97F4A7C15L ^ size);
+        this.valueKeys = new long[cellCount * size];
+        this.candidateKeys = new long[cellCount * size];
+        for (int i = 0; i < valueKeys.length; i++) {
+            valueKeys[i] = random.nextLong();
+            candidateKeys[i] = random.nextLong();
+        }
+    }
+
+    public static Topology of(int size) {
+        return of(BoxGeometry.forSize(size));
+    }
+
+    public static Topology of(BoxGeometry geometry) {
+        return CACHE.computeIfAbsent(geometry, Topology::new);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public BoxGeometry getGeometry() {
+        return geometry;
+    }
+
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    public int getUnitCount() {
+        return units.length;
+    }
+
+    public int rowOf(int index) {
+        return rowOf[index];
+    }
+
+    public int columnOf(int index) {
+        return columnOf[index];
+    }
+
+    public int boxOf(int index) {
+        return boxOf[index];
+    }
+
+    public int rowUnit(int row) {
+        return row;
+    }
+
+    public int columnUnit(int column) {
+        return size + column;
+    }
+
+    public int boxUnit(int box) {
+        return 2 * size + box;
+    }
+
+    /**
+     * Unità (riga, colonna, quadrato) a cui appartiene la cella. L'array è condiviso: non va modificato.
+     */
+    public int[] unitsOf(int index) {
+        return cellUnits[index];
+    }
+
+    /**
+     * Indici delle celle di un'unità. L'array è condiviso: non va modificato.
+     */
+    public int[] getUnit(int unit) {
+        return units[unit];
+    }
+
+    /**
+     * Celle distinte che condividono riga, colonna o quadrato con la cella. L'array è condiviso.
+     */
+    public int[] getPeers(int index) {
+        return peers[index];
+    }
+
+    /**
+     * Altre celle dello stesso quadrato. L'array è condiviso.
+     */
+    public int[] getBoxPeers(int index) {
+        return boxPeers[index];
+    }
+
+    /**
+     * Numero di long necessari per un bitboard con un bit per cella.
+     */
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    /**
+     * Bitboard delle celle dell'unità (bit {@code i} = cella {@code i}). L'array è condiviso.
+     */
+    public long[] getUnitBits(int unit) {
+        return unitBits[unit];
+    }
+
+    /**
+     * Posizione della cella dentro la {@code j}-esima delle sue unità (0 riga, 1 colonna, 2 quadrato),
+     * cioè l'indice in {@link #getUnit(int)}.
+     */
+    public int positionInUnit(int index, int j) {
+        return positionsInUnits[index][j];
+    }
+
+    public Coordinate getCoordinate(int index) {
+        return coordinates[index];
+    }
+
+    public Map<Coordinate, Set<Coordinate>> getCoordinatesSquares() {
+        return coordinatesSquares;
+    }
+
+    /**
+     * Chiave Zobrist del numero {@code value} nella cella; 0 per la cella vuota.
+     */
+    public long valueKey(int index, int value) {
+        return value == 0 ? 0L : valueKeys[index * size + value - 1];
+    }
+
+    /**
+     * Chiave Zobrist del candidato {@code number} nella cella.
+     */
+    public long candidateKey(int index, int number) {
+        return candidateKeys[index * size + number - 1];
+    }
+}
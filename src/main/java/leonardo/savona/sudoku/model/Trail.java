@@ -0,0 +1,77 @@
+package leonardo.savona.sudoku.model;
+
+import java.util.Arrays;
+
+/**
+ * Registro delle modifiche di una {@link Sudoku}: ogni voce conserva il valore prima e dopo,
+ * così lo stesso registro serve sia per tornare indietro sia per ripetere.
+ * Le voci oltre la posizione corrente restano disponibili per il redo finché non arriva una nuova modifica.
+ */
+final class Trail {
+
+    static final byte VALUE = 0;
+    static final byte CANDIDATES = 1;
+    static final byte NOTES = 2;
+    static final byte FIXED = 3;
+
+    private byte[] kinds = new byte[64];
+    private int[] indexes = new int[64];
+    private long[] before = new long[64];
+    private long[] after = new long[64];
+    private int position;
+    private int end;
+
+    void record(byte kind, int index, long oldValue, long newValue) {
+        if (position == kinds.length) {
+            int capacity = kinds.length * 2;
+            kinds = Arrays.copyOf(kinds, capacity);
+            indexes = Arrays.copyOf(indexes, capacity);
+            before = Arrays.copyOf(before, capacity);
+            after = Arrays.copyOf(after, capacity);
+        }
+        kinds[position] = kind;
+        indexes[position] = index;
+        before[position] = oldValue;
+        after[position] = newValue;
+        position++;
+        end = position;
+    }
+
+    int position() {
+        return position;
+    }
+
+    int end() {
+        return end;
+    }
+
+    /**
+     * Arretra di una voce; i getter successivi descrivono la voce appena annullata.
+     */
+    void stepBack() {
+        position--;
+    }
+
+    /**
+     * Avanza di una voce già registrata; i getter descrivono la voce da riapplicare.
+     */
+    void stepForward() {
+        position++;
+    }
+
+    byte kindAt(int entry) {
+        return kinds[entry];
+    }
+
+    int indexAt(int entry) {
+        return indexes[entry];
+    }
+
+    long beforeAt(int entry) {
+        return before[entry];
+    }
+
+    long afterAt(int entry) {
+        return after[entry];
+    }
+}
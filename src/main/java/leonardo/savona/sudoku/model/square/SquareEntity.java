@@ -1,9 +1,11 @@
 package leonardo.savona.sudoku.model.square;
 
+import leonardo.savona.sudoku.model.Candidates;
 import leonardo.savona.sudoku.model.Cell;
 
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
 
 public abstract class SquareEntity {
 
@@ -26,26 +28,42 @@ public abstract class SquareEntity {
         this.cells.add(cell);
     }
 
-    public List<Integer> getPossibleValues() {
-        return cells.stream()
-                .flatMap(cell -> cell.getPossibleValues().stream())
-                .collect(Collectors.toList());
+    /**
+     * Unione dei candidati di tutte le celle dell'entità.
+     */
+    public long getPossibleValues() {
+        long mask = Candidates.NONE;
+        for (Cell cell : cells) {
+            mask |= cell.getCandidates();
+        }
+        return mask;
     }
 
-    public Set<Integer> getPossibleValuesPresentInEveryCells() {
-        Map<Integer, Long> frequencyMap = getPossibleValues().stream()
-                .collect(Collectors.groupingBy(n -> n, Collectors.counting()));
-        Set<Integer> result = new HashSet<>();
-        for (Map.Entry<Integer, Long> entry : frequencyMap.entrySet()) {
-            if (entry.getValue() == getCellsWithPossibleValues().size()) {
-                result.add(entry.getKey());
+    /**
+     * Candidati presenti in tutte le celle che hanno ancora più di un candidato.
+     */
+    public long getPossibleValuesPresentInEveryCells() {
+        int cellsWithPossibleValues = 0;
+        for (Cell cell : cells) {
+            if (cell.getCandidatesCount() > 1) {
+                cellsWithPossibleValues++;
             }
         }
-        return result;
-    }
 
-    private Set<Cell> getCellsWithPossibleValues() {
-        return cells.stream().filter(c -> c.getPossibleValues().size() > 1).collect(Collectors.toSet());
+        long result = Candidates.NONE;
+        for (long m = getPossibleValues(); m != 0; m = Candidates.withoutLowest(m)) {
+            int number = Candidates.lowest(m);
+            int frequency = 0;
+            for (Cell cell : cells) {
+                if (cell.hasCandidate(number)) {
+                    frequency++;
+                }
+            }
+            if (frequency == cellsWithPossibleValues) {
+                result = Candidates.add(result, number);
+            }
+        }
+        return result;
     }
 
     @Override
@@ -109,27 +109,7 @@ public class AssistedSudokuImporter {
     }
 
     private boolean violatesSudoku(Sudoku board, int row, int col, int value) {
-        if (value == 0) return false;
-        // riga
-        for (int c = 0; c < 9; c++) {
-            if (c == col) continue;
-            if (board.getValue(row, c) == value) return true;
-        }
-        // colonna
-        for (int r = 0; r < 9; r++) {
-            if (r == row) continue;
-            if (board.getValue(r, col) == value) return true;
-        }
-        // box
-        int br = (row / 3) * 3;
-        int bc = (col / 3) * 3;
-        for (int rr = br; rr < br + 3; rr++) {
-            for (int cc = bc; cc < bc + 3; cc++) {
-                if (rr == row && cc == col) continue;
-                if (board.getValue(rr, cc) == value) return true;
-            }
-        }
-        return false;
+        return !board.isValueAllowed(row, col, value);
     }
 
     public static class RecognizedSudoku {
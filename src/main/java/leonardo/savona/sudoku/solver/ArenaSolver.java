@@ -0,0 +1,142 @@
+package leonardo.savona.sudoku.solver;
+
+import leonardo.savona.sudoku.model.BoardArena;
+import leonardo.savona.sudoku.model.Candidates;
+import leonardo.savona.sudoku.model.Sudoku;
+import leonardo.savona.sudoku.model.Topology;
+
+/**
+ * Risoluzione che lavora direttamente sugli slot di una {@link BoardArena}: propagazione dei
+ * singoli (nudi e nascosti) e ricerca in profondità, con una copia di slot per ogni ramo.
+ * I rami falliti vengono liberati subito; il resto si libera con {@link BoardArena#reset()}.
+ */
+public class ArenaSolver {
+
+    private final BoardArena arena;
+    private final Topology topology;
+    private final int size;
+
+    public ArenaSolver(BoardArena arena) {
+        this.arena = arena;
+        this.topology = arena.getTopology();
+        this.size = topology.getSize();
+    }
+
+    /**
+     * Risolve la board in un'arena temporanea; {@code null} se non ha soluzione.
+     */
+    public static Sudoku solve(Sudoku sudoku) {
+        BoardArena arena = new BoardArena(sudoku.getGeometry(), sudoku.getTopology().getCellCount() + 1);
+        ArenaSolver solver = new ArenaSolver(arena);
+        int solved = solver.search(arena.load(sudoku));
+        return solved < 0 ? null : arena.toSudoku(solved);
+    }
+
+    /**
+     * Cerca una soluzione a partire dallo slot. Restituisce lo slot risolto (che può essere
+     * quello di partenza) oppure -1; lo slot di partenza non viene liberato.
+     * Se il thread viene interrotto restituisce -1.
+     */
+    public int search(int handle) {
+        if (Thread.currentThread().isInterrupted() || !propagate(handle)) {
+            return -1;
+        }
+        int cell = -1;
+        int best = Integer.MAX_VALUE;
+        for (int i = 0; i < topology.getCellCount(); i++) {
+            if (arena.getValue(handle, i) == 0) {
+                int count = Candidates.count(arena.getCandidates(handle, i));
+                if (count < best) {
+                    best = count;
+                    cell = i;
+                }
+            }
+        }
+        if (cell < 0) {
+            return handle;
+        }
+        for (long m = arena.getCandidates(handle, cell); m != 0; m = Candidates.withoutLowest(m)) {
+            int child = arena.copy(handle);
+            if (place(child, cell, Candidates.lowest(m))) {
+                int solved = search(child);
+                if (solved >= 0) {
+                    return solved;
+                }
+            }
+            arena.free(child);
+        }
+        return -1;
+    }
+
+    /**
+     * Piazza i singoli nudi e nascosti finché ce ne sono. Falso se la board è contraddittoria.
+     */
+    public boolean propagate(int handle) {
+        boolean progress = true;
+        while (progress) {
+            progress = false;
+            for (int i = 0; i < topology.getCellCount(); i++) {
+                if (arena.getValue(handle, i) != 0) {
+                    continue;
+                }
+                long candidates = arena.getCandidates(handle, i);
+                if (candidates == Candidates.NONE) {
+                    return false;
+                }
+                if (Candidates.isSingle(candidates)) {
+                    if (!place(handle, i, Candidates.lowest(candidates))) {
+                        return false;
+                    }
+                    progress = true;
+                }
+            }
+            for (int unit = 0; unit < topology.getUnitCount(); unit++) {
+                int[] cells = topology.getUnit(unit);
+                long seenOnce = Candidates.NONE;
+                long seenTwice = Candidates.NONE;
+                long placed = Candidates.NONE;
+                for (int index : cells) {
+                    int value = arena.getValue(handle, index);
+                    if (value != 0) {
+                        placed |= Candidates.of(value);
+                    } else {
+                        long candidates = arena.getCandidates(handle, index);
+                        seenTwice |= seenOnce & candidates;
+                        seenOnce |= candidates;
+                    }
+                }
+                if ((seenOnce | placed) != Candidates.all(size)) {
+                    return false; // un numero non trova posto nell'unità
+                }
+                long hidden = seenOnce & ~seenTwice & ~placed;
+                for (long m = hidden; m != 0; m = Candidates.withoutLowest(m)) {
+                    int number = Candidates.lowest(m);
+                    for (int index : cells) {
+                        if (arena.getValue(handle, index) == 0
+                                && Candidates.contains(arena.getCandidates(handle, index), number)) {
+                            if (!place(handle, index, number)) {
+                                return false;
+                            }
+                            progress = true;
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean place(int handle, int index, int value) {
+        arena.setValue(handle, index, value);
+        arena.setCandidates(handle, index, Candidates.NONE);
+        long bit = Candidates.of(value);
+        for (int peer : topology.getPeers(index)) {
+            if (arena.getValue(handle, peer) == value) {
+                return false;
+            }
+            arena.setCandidates(handle, peer, arena.getCandidates(handle, peer) & ~bit);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,270 @@
+package leonardo.savona.sudoku.solver;
+
+import leonardo.savona.sudoku.model.BoxGeometry;
+import leonardo.savona.sudoku.model.Candidates;
+import leonardo.savona.sudoku.model.Sudoku;
+import leonardo.savona.sudoku.model.Topology;
+
+import java.util.function.Predicate;
+
+/**
+ * Risolutore a forza bruta su bitmask: ricerca in profondità scegliendo la cella con meno
+ * candidati, con propagazione dei singoli nudi e nascosti a ogni nodo.
+ * Lo stato di ogni livello della ricerca è preallocato, quindi un nodo non alloca oggetti.
+ * <p>
+ * Un'istanza va usata da un solo thread alla volta; può risolvere più griglie di seguito.
+ * Se il thread viene interrotto la ricerca si ferma: nessuna soluzione, conteggi parziali.
+ */
+public final class BitboardSolver {
+
+    private final Topology topology;
+    private final int cellCount;
+    private final long all;
+    private final int[][] peers;
+    private final int[][] units;
+
+    // stato per livello: valori e candidati delle celle (0 per le celle piene), numeri piazzati per unità
+    private final byte[][] values;
+    private final long[][] candidates;
+    private final long[][] placed;
+    private final int[][] cellUnits;
+
+    // celle rimaste con un solo candidato, in attesa di essere piazzate
+    private final int[] singles;
+    private int singlesCount;
+
+    private final int[] solution;
+    private long solutions;
+    private long limit;
+    private Predicate<int[]> handler;
+    private long nodes;
+
+    public BitboardSolver(BoxGeometry geometry) {
+        this.topology = Topology.of(geometry);
+        this.cellCount = topology.getCellCount();
+        this.all = Candidates.all(topology.getSize());
+        this.peers = new int[cellCount][];
+        for (int i = 0; i < cellCount; i++) {
+            peers[i] = topology.getPeers(i);
+        }
+        this.units = new int[topology.getUnitCount()][];
+        for (int u = 0; u < units.length; u++) {
+            units[u] = topology.getUnit(u);
+        }
+        this.cellUnits = new int[cellCount][];
+        for (int i = 0; i < cellCount; i++) {
+            cellUnits[i] = topology.unitsOf(i);
+        }
+        // ogni livello piazza almeno un numero
+        this.values = new byte[cellCount + 1][cellCount];
+        this.candidates = new long[cellCount + 1][cellCount];
+        this.placed = new long[cellCount + 1][units.length];
+        // una cella si accoda al massimo una volta: i candidati possono solo diminuire
+        this.singles = new int[cellCount];
+        this.solution = new int[cellCount];
+    }
+
+    /**
+     * Soluzione della board come valori per indice di cella, {@code null} se non esiste.
+     */
+    public static int[] solve(Sudoku sudoku) {
+        return new BitboardSolver(sudoku.getGeometry()).solve(values(sudoku));
+    }
+
+    /**
+     * Risolve la griglia (valori per indice, 0 = vuota). Restituisce un nuovo array con la
+     * soluzione oppure {@code null}.
+     */
+    public int[] solve(int[] grid) {
+        return run(grid, 1) > 0 ? solution.clone() : null;
+    }
+
+    /**
+     * Conta le soluzioni fermandosi a {@code limit}: con limite 2 dice se la soluzione è unica.
+     */
+    public int countSolutions(int[] grid, int limit) {
+        return (int) run(grid, limit);
+    }
+
+    /**
+     * Conta tutte le soluzioni, senza limite.
+     */
+    public long countAll(int[] grid) {
+        return run(grid, Long.MAX_VALUE);
+    }
+
+    /**
+     * Passa ogni soluzione all'handler, finché questo restituisce {@code true}.
+     * Ogni soluzione è un array nuovo. Restituisce il numero di soluzioni accettate, senza quella rifiutata.
+     */
+    public long enumerate(int[] grid, Predicate<int[]> handler) {
+        this.handler = handler;
+        try {
+            return run(grid, Long.MAX_VALUE);
+        } finally {
+            this.handler = null;
+        }
+    }
+
+    /**
+     * Valori della board per indice di cella.
+     */
+    public static int[] values(Sudoku sudoku) {
+        int[] grid = new int[sudoku.getTopology().getCellCount()];
+        for (int i = 0; i < grid.length; i++) {
+            grid[i] = sudoku.getValueAt(i);
+        }
+        return grid;
+    }
+
+    private long run(int[] grid, long limit) {
+        if (grid.length != cellCount) {
+            throw new IllegalArgumentException("Griglia di " + grid.length + " celle invece di " + cellCount);
+        }
+        this.solutions = 0;
+        this.limit = limit;
+        byte[] vals = values[0];
+        long[] cands = candidates[0];
+        long[] used = placed[0];
+        singlesCount = 0;
+        for (int i = 0; i < cellCount; i++) {
+            vals[i] = 0;
+            cands[i] = all;
+        }
+        for (int u = 0; u < used.length; u++) {
+            used[u] = 0;
+        }
+        for (int i = 0; i < cellCount; i++) {
+            int value = grid[i];
+            if (value != 0) {
+                if (!Candidates.contains(cands[i], value) || !assign(vals, cands, used, i, value)) {
+                    return 0;
+                }
+            }
+        }
+        search(0);
+        return solutions;
+    }
+
+    // vero quando si è raggiunto il limite di soluzioni
+    private boolean search(int depth) {
+        if ((++nodes & 0xFFF) == 0 && Thread.currentThread().isInterrupted()) {
+            return true;
+        }
+        byte[] vals = values[depth];
+        long[] cands = candidates[depth];
+        long[] used = placed[depth];
+        if (!propagate(vals, cands, used)) {
+            return false;
+        }
+        int best = -1;
+        int bestCount = Integer.MAX_VALUE;
+        for (int i = 0; i < cellCount; i++) {
+            if (cands[i] != 0) {
+                int count = Long.bitCount(cands[i]);
+                if (count < bestCount) {
+                    best = i;
+                    bestCount = count;
+                    if (count == 2) {
+                        break;
+                    }
+                }
+            }
+        }
+        if (best < 0) {
+            if (solutions++ == 0 || handler != null) {
+                for (int i = 0; i < cellCount; i++) {
+                    solution[i] = vals[i];
+                }
+            }
+            if (handler != null && !handler.test(solution.clone())) {
+                // la soluzione rifiutata non conta
+                solutions--;
+                return true;
+            }
+            return solutions >= limit;
+        }
+        byte[] nextVals = values[depth + 1];
+        long[] nextCands = candidates[depth + 1];
+        long[] nextUsed = placed[depth + 1];
+        for (long m = cands[best]; m != 0; m &= m - 1) {
+            System.arraycopy(vals, 0, nextVals, 0, cellCount);
+            System.arraycopy(cands, 0, nextCands, 0, cellCount);
+            System.arraycopy(used, 0, nextUsed, 0, used.length);
+            singlesCount = 0;
+            if (assign(nextVals, nextCands, nextUsed, best, Long.numberOfTrailingZeros(m) + 1) && search(depth + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean propagate(byte[] vals, long[] cands, long[] used) {
+        boolean progress = true;
+        while (progress) {
+            progress = false;
+            // singoli nudi: assign() accoda le celle rimaste con un solo candidato
+            while (singlesCount > 0) {
+                int i = singles[--singlesCount];
+                if (cands[i] != 0 && !assign(vals, cands, used, i, Long.numberOfTrailingZeros(cands[i]) + 1)) {
+                    return false;
+                }
+            }
+            // singoli nascosti
+            for (int u = 0; u < units.length; u++) {
+                int[] unit = units[u];
+                long once = 0;
+                long twice = 0;
+                for (int index : unit) {
+                    long mask = cands[index];
+                    twice |= once & mask;
+                    once |= mask;
+                }
+                if ((once | used[u]) != all) {
+                    return false;
+                }
+                long hidden = once & ~twice;
+                if (hidden == 0) {
+                    continue;
+                }
+                for (int index : unit) {
+                    long mask = cands[index] & hidden;
+                    if (mask != 0) {
+                        if ((mask & (mask - 1)) != 0) {
+                            return false; // due numeri obbligati nella stessa cella
+                        }
+                        if (!assign(vals, cands, used, index, Long.numberOfTrailingZeros(mask) + 1)) {
+                            return false;
+                        }
+                        progress = true;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean assign(byte[] vals, long[] cands, long[] used, int index, int value) {
+        long bit = 1L << (value - 1);
+        vals[index] = (byte) value;
+        cands[index] = 0;
+        for (int unit : cellUnits[index]) {
+            used[unit] |= bit;
+        }
+        // solo le celle vuote hanno candidati
+        for (int peer : peers[index]) {
+            long mask = cands[peer];
+            if ((mask & bit) != 0) {
+                mask &= ~bit;
+                cands[peer] = mask;
+                if (mask == 0) {
+                    return false;
+                }
+                if ((mask & (mask - 1)) == 0) {
+                    singles[singlesCount++] = peer;
+                }
+            }
+        }
+        return true;
+    }
+}
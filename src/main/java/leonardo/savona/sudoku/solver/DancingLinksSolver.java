@@ -0,0 +1,329 @@
+package leonardo.savona.sudoku.solver;
+
+import leonardo.savona.sudoku.model.BoxGeometry;
+import leonardo.savona.sudoku.model.Sudoku;
+import leonardo.savona.sudoku.model.Topology;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Risolutore a copertura esatta (Algorithm X di Knuth con i Dancing Links).
+ * Le colonne sono i vincoli: ogni cella ha un numero, ogni unità (riga, colonna, quadrato e
+ * le eventuali unità aggiuntive, per esempio le diagonali) contiene ogni numero una volta.
+ * Le righe sono le coppie cella/numero. Per il 9x9 sono 324 colonne e 729 righe.
+ * <p>
+ * La matrice è costruita una sola volta per geometria e copiata in ogni istanza; i collegamenti
+ * sono array di int e vengono ripristinati alla fine di ogni ricerca, quindi un'istanza può
+ * risolvere più griglie di seguito. Un'istanza va usata da un solo thread alla volta.
+ */
+public final class DancingLinksSolver {
+
+    private static final Map<BoxGeometry, Matrix> STANDARD = new ConcurrentHashMap<>();
+
+    private final int size;
+    private final int cellCount;
+    private final int root;
+    private final int[] left;
+    private final int[] right;
+    private final int[] up;
+    private final int[] down;
+    private final int[] column;
+    private final int[] rowOf;
+    private final int[] columnSize;
+    private final int[] rowStart;
+
+    // stato della ricerca corrente
+    private final int[] chosen;
+    private final int[] coveredByGivens;
+    private final boolean[] covered;
+    private int[] current;
+    private Predicate<int[]> handler;
+    private int solutions;
+    private long nodes;
+
+    public DancingLinksSolver(BoxGeometry geometry) {
+        this(STANDARD.computeIfAbsent(geometry, g -> new Matrix(g, new int[0][])));
+    }
+
+    /**
+     * Variante con unità aggiuntive: ogni array elenca {@code size} indici di cella
+     * che devono contenere tutti i numeri (vedi {@link #diagonals(BoxGeometry)}).
+     */
+    public DancingLinksSolver(BoxGeometry geometry, int[][] extraUnits) {
+        this(new Matrix(geometry, extraUnits));
+    }
+
+    private DancingLinksSolver(Matrix matrix) {
+        this.size = matrix.size;
+        this.cellCount = matrix.cellCount;
+        this.root = matrix.root;
+        this.left = matrix.left.clone();
+        this.right = matrix.right.clone();
+        this.up = matrix.up.clone();
+        this.down = matrix.down.clone();
+        this.column = matrix.column;
+        this.rowOf = matrix.rowOf;
+        this.columnSize = matrix.columnSize.clone();
+        this.rowStart = matrix.rowStart;
+        this.chosen = new int[cellCount];
+        this.coveredByGivens = new int[root];
+        this.covered = new boolean[root];
+    }
+
+    /**
+     * Le due diagonali principali, da usare come unità aggiuntive per il sudoku X.
+     */
+    public static int[][] diagonals(BoxGeometry geometry) {
+        int size = geometry.getSize();
+        int[][] units = new int[2][size];
+        for (int i = 0; i < size; i++) {
+            units[0][i] = i * size + i;
+            units[1][i] = i * size + (size - 1 - i);
+        }
+        return units;
+    }
+
+    public static int[] solve(Sudoku sudoku) {
+        return new DancingLinksSolver(sudoku.getGeometry()).solve(BitboardSolver.values(sudoku));
+    }
+
+    /**
+     * Prima soluzione trovata (valori per indice di cella) oppure {@code null}.
+     */
+    public int[] solve(int[] grid) {
+        int[][] found = new int[1][];
+        enumerate(grid, solution -> {
+            found[0] = solution;
+            return false;
+        });
+        return found[0];
+    }
+
+    /**
+     * Conta le soluzioni fermandosi a {@code limit}.
+     */
+    public int countSolutions(int[] grid, int limit) {
+        return enumerate(grid, solution -> solutions < limit);
+    }
+
+    /**
+     * Passa ogni soluzione all'handler, finché questo restituisce {@code true}.
+     * Ogni soluzione è un array nuovo. Restituisce il numero di soluzioni consegnate.
+     */
+    public int enumerate(int[] grid, Predicate<int[]> handler) {
+        if (grid.length != cellCount) {
+            throw new IllegalArgumentException("Griglia di " + grid.length + " celle invece di " + cellCount);
+        }
+        this.current = grid;
+        this.handler = handler;
+        this.solutions = 0;
+        int givenColumns = 0;
+        boolean consistent = true;
+        for (int cell = 0; cell < cellCount && consistent; cell++) {
+            int value = grid[cell];
+            if (value == 0) {
+                continue;
+            }
+            if (value < 0 || value > size) {
+                throw new IllegalArgumentException("Valore non valido: " + value);
+            }
+            int start = rowStart[cell * size + value - 1];
+            int node = start;
+            do {
+                int col = column[node];
+                if (covered[col]) {
+                    consistent = false; // vincolo già soddisfatto da un altro dato: numero ripetuto
+                    break;
+                }
+                cover(col);
+                coveredByGivens[givenColumns++] = col;
+                node = right[node];
+            } while (node != start);
+        }
+        if (consistent) {
+            search(0);
+        }
+        while (givenColumns > 0) {
+            uncover(coveredByGivens[--givenColumns]);
+        }
+        this.current = null;
+        this.handler = null;
+        return solutions;
+    }
+
+    // vero quando l'handler chiede di fermarsi o il thread viene interrotto
+    private boolean search(int depth) {
+        if ((++nodes & 0xFFF) == 0 && Thread.currentThread().isInterrupted()) {
+            return true;
+        }
+        if (right[root] == root) {
+            solutions++;
+            return !handler.test(buildSolution(depth));
+        }
+        int best = right[root];
+        for (int col = right[best]; col != root; col = right[col]) {
+            if (columnSize[col] < columnSize[best]) {
+                best = col;
+            }
+        }
+        if (columnSize[best] == 0) {
+            return false;
+        }
+        cover(best);
+        boolean stop = false;
+        for (int row = down[best]; row != best && !stop; row = down[row]) {
+            chosen[depth] = rowOf[row];
+            for (int node = right[row]; node != row; node = right[node]) {
+                cover(column[node]);
+            }
+            stop = search(depth + 1);
+            for (int node = left[row]; node != row; node = left[node]) {
+                uncover(column[node]);
+            }
+        }
+        uncover(best);
+        return stop;
+    }
+
+    private int[] buildSolution(int depth) {
+        int[] solution = Arrays.copyOf(current, cellCount);
+        for (int i = 0; i < depth; i++) {
+            solution[chosen[i] / size] = chosen[i] % size + 1;
+        }
+        return solution;
+    }
+
+    private void cover(int col) {
+        covered[col] = true;
+        right[left[col]] = right[col];
+        left[right[col]] = left[col];
+        for (int row = down[col]; row != col; row = down[row]) {
+            for (int node = right[row]; node != row; node = right[node]) {
+                up[down[node]] = up[node];
+                down[up[node]] = down[node];
+                columnSize[column[node]]--;
+            }
+        }
+    }
+
+    private void uncover(int col) {
+        for (int row = up[col]; row != col; row = up[row]) {
+            for (int node = left[row]; node != row; node = left[node]) {
+                columnSize[column[node]]++;
+                up[down[node]] = node;
+                down[up[node]] = node;
+            }
+        }
+        right[left[col]] = col;
+        left[right[col]] = col;
+        covered[col] = false;
+    }
+
+    /**
+     * Matrice iniziale, condivisa tra le istanze: gli array dei collegamenti vengono copiati.
+     */
+    private static final class Matrix {
+
+        final int size;
+        final int cellCount;
+        final int root;
+        final int[] left;
+        final int[] right;
+        final int[] up;
+        final int[] down;
+        final int[] column;
+        final int[] rowOf;
+        final int[] columnSize;
+        final int[] rowStart;
+
+        Matrix(BoxGeometry geometry, int[][] extraUnits) {
+            Topology topology = Topology.of(geometry);
+            this.size = geometry.getSize();
+            this.cellCount = topology.getCellCount();
+            int standardUnits = topology.getUnitCount();
+
+            // unità di ogni cella: le tre standard più le aggiuntive che la contengono
+            int[][] cellUnits = new int[cellCount][];
+            int[] extraCount = new int[cellCount];
+            for (int[] unit : extraUnits) {
+                if (unit.length != size) {
+                    throw new IllegalArgumentException("Un'unità deve avere " + size + " celle");
+                }
+                for (int cell : unit) {
+                    extraCount[cell]++;
+                }
+            }
+            for (int cell = 0; cell < cellCount; cell++) {
+                cellUnits[cell] = Arrays.copyOf(topology.unitsOf(cell), 3 + extraCount[cell]);
+                extraCount[cell] = 3;
+            }
+            for (int u = 0; u < extraUnits.length; u++) {
+                for (int cell : extraUnits[u]) {
+                    cellUnits[cell][extraCount[cell]++] = standardUnits + u;
+                }
+            }
+
+            int columns = cellCount + (standardUnits + extraUnits.length) * size;
+            int rows = cellCount * size;
+            int nodes = columns + 1;
+            for (int cell = 0; cell < cellCount; cell++) {
+                nodes += size * (1 + cellUnits[cell].length);
+            }
+            this.root = columns;
+            this.left = new int[nodes];
+            this.right = new int[nodes];
+            this.up = new int[nodes];
+            this.down = new int[nodes];
+            this.column = new int[nodes];
+            this.rowOf = new int[nodes];
+            this.columnSize = new int[columns];
+            this.rowStart = new int[rows];
+
+            // intestazioni in cerchio con la radice
+            for (int col = 0; col <= columns; col++) {
+                left[col] = col == 0 ? columns : col - 1;
+                right[col] = col == columns ? 0 : col + 1;
+                up[col] = col;
+                down[col] = col;
+                column[col] = col;
+            }
+
+            int next = columns + 1;
+            for (int cell = 0; cell < cellCount; cell++) {
+                for (int n = 0; n < size; n++) {
+                    int row = cell * size + n;
+                    int first = next;
+                    rowStart[row] = first;
+                    next = link(next, first, row, cell);
+                    for (int unit : cellUnits[cell]) {
+                        next = link(next, first, row, cellCount + unit * size + n);
+                    }
+                }
+            }
+        }
+
+        // aggiunge il nodo in fondo alla colonna e alla riga che comincia da first
+        private int link(int node, int first, int row, int col) {
+            column[node] = col;
+            rowOf[node] = row;
+            up[node] = up[col];
+            down[node] = col;
+            down[up[col]] = node;
+            up[col] = node;
+            columnSize[col]++;
+            if (node == first) {
+                left[node] = node;
+                right[node] = node;
+            } else {
+                left[node] = left[first];
+                right[node] = first;
+                right[left[first]] = node;
+                left[first] = node;
+            }
+            return node + 1;
+        }
+    }
+}
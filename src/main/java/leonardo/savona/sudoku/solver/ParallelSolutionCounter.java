@@ -0,0 +1,190 @@
+package leonardo.savona.sudoku.solver;
+
+import leonardo.savona.sudoku.model.BoxGeometry;
+import leonardo.savona.sudoku.model.Candidates;
+import leonardo.savona.sudoku.model.Sudoku;
+import leonardo.savona.sudoku.model.Topology;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * Conteggio ed enumerazione completi delle soluzioni su un {@link ForkJoinPool}.
+ * I primi {@code splitDepth} livelli dell'albero di ricerca diventano sottotask (uno per candidato
+ * della cella con meno candidati), che i worker si rubano a vicenda; sotto quella profondità ogni
+ * sottoalbero è esplorato da un {@link BitboardSolver} del worker, senza stato condiviso. I risolutori
+ * appartengono al singolo conteggio, non sono quelli di {@link SolutionCounter}.
+ */
+public final class ParallelSolutionCounter {
+
+    public static final int DEFAULT_SPLIT_DEPTH = 4;
+
+    private final ForkJoinPool pool;
+    private final int splitDepth;
+
+    public ParallelSolutionCounter() {
+        this(ForkJoinPool.commonPool(), DEFAULT_SPLIT_DEPTH);
+    }
+
+    public ParallelSolutionCounter(ForkJoinPool pool, int splitDepth) {
+        if (splitDepth < 0) {
+            throw new IllegalArgumentException("Profondità di divisione negativa: " + splitDepth);
+        }
+        this.pool = pool;
+        this.splitDepth = splitDepth;
+    }
+
+    public long count(Sudoku sudoku) {
+        return count(sudoku.getGeometry(), BitboardSolver.values(sudoku));
+    }
+
+    public long count(BoxGeometry geometry, int[] grid) {
+        return run(geometry, grid, null);
+    }
+
+    /**
+     * Passa ogni soluzione all'handler finché questo restituisce {@code true}. L'handler è chiamato
+     * dai worker in parallelo, quindi deve essere thread-safe; dopo il primo {@code false} i sottotask
+     * ancora in corso si fermano alla soluzione successiva. Restituisce il numero di soluzioni accettate,
+     * senza quella rifiutata. L'handler gira dentro la ricerca: non deve richiamare questo conteggio
+     * né aspettare altri task dello stesso pool.
+     */
+    public long enumerate(Sudoku sudoku, Predicate<int[]> handler) {
+        return enumerate(sudoku.getGeometry(), BitboardSolver.values(sudoku), handler);
+    }
+
+    public long enumerate(BoxGeometry geometry, int[] grid, Predicate<int[]> handler) {
+        return run(geometry, grid, handler);
+    }
+
+    private long run(BoxGeometry geometry, int[] grid, Predicate<int[]> handler) {
+        Topology topology = Topology.of(geometry);
+        if (grid.length != topology.getCellCount()) {
+            throw new IllegalArgumentException("Griglia di " + grid.length + " celle invece di " + topology.getCellCount());
+        }
+        Search search = new Search(geometry, topology, handler);
+        return pool.invoke(new SubtreeTask(search, grid.clone(), 0));
+    }
+
+    /**
+     * Dati comuni a tutti i sottotask di un conteggio.
+     */
+    private static final class Search {
+        final BoxGeometry geometry;
+        final Topology topology;
+        final Predicate<int[]> handler;
+        final AtomicBoolean stopped = new AtomicBoolean();
+        // risolutore libero del worker; null mentre è in uso, così un rientro ne crea uno nuovo
+        final ThreadLocal<BitboardSolver> idleSolver = new ThreadLocal<>();
+
+        Search(BoxGeometry geometry, Topology topology, Predicate<int[]> handler) {
+            this.geometry = geometry;
+            this.topology = topology;
+            this.handler = handler;
+        }
+
+        boolean deliver(int[] solution) {
+            if (stopped.get()) {
+                return false;
+            }
+            if (!handler.test(solution)) {
+                stopped.set(true);
+                return false;
+            }
+            return true;
+        }
+
+        BitboardSolver acquireSolver() {
+            BitboardSolver solver = idleSolver.get();
+            if (solver == null) {
+                return new BitboardSolver(geometry);
+            }
+            idleSolver.set(null);
+            return solver;
+        }
+
+        void releaseSolver(BitboardSolver solver) {
+            idleSolver.set(solver);
+        }
+    }
+
+    private final class SubtreeTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final Search search;
+        private final int[] grid;
+        private final int depth;
+
+        SubtreeTask(Search search, int[] grid, int depth) {
+            this.search = search;
+            this.grid = grid;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            if (search.stopped.get()) {
+                return 0L;
+            }
+            if (depth >= splitDepth) {
+                BitboardSolver solver = search.acquireSolver();
+                try {
+                    return search.handler == null ? solver.countAll(grid) : solver.enumerate(grid, search::deliver);
+                } finally {
+                    search.releaseSolver(solver);
+                }
+            }
+
+            Topology topology = search.topology;
+            int best = -1;
+            long bestMask = 0;
+            int bestCount = Integer.MAX_VALUE;
+            for (int index = 0; index < grid.length; index++) {
+                if (grid[index] != 0) {
+                    continue;
+                }
+                long mask = freeNumbers(topology, index);
+                int count = Long.bitCount(mask);
+                if (count == 0) {
+                    return 0L;
+                }
+                if (count < bestCount) {
+                    best = index;
+                    bestMask = mask;
+                    bestCount = count;
+                }
+            }
+            if (best < 0) {
+                // griglia già completa: va comunque verificata dal risolutore
+                return new SubtreeTask(search, grid, splitDepth).compute();
+            }
+
+            List<SubtreeTask> children = new ArrayList<>(bestCount);
+            for (long m = bestMask; m != 0; m &= m - 1) {
+                int[] child = grid.clone();
+                child[best] = Long.numberOfTrailingZeros(m) + 1;
+                children.add(new SubtreeTask(search, child, depth + 1));
+            }
+            long total = 0;
+            for (SubtreeTask child : invokeAll(children)) {
+                total += child.join();
+            }
+            return total;
+        }
+
+        private long freeNumbers(Topology topology, int index) {
+            long used = 0;
+            for (int peer : topology.getPeers(index)) {
+                int value = grid[peer];
+                if (value != 0) {
+                    used |= 1L << (value - 1);
+                }
+            }
+            return Candidates.all(topology.getSize()) & ~used;
+        }
+    }
+}
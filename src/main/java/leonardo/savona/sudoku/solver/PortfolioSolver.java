@@ -0,0 +1,212 @@
+package leonardo.savona.sudoku.solver;
+
+import leonardo.savona.sudoku.model.Sudoku;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Portafoglio di motori: li lancia tutti insieme sullo stesso executor e tiene la prima soluzione completa.
+ * Gli altri vengono cancellati con un'interruzione, che i motori controllano durante la ricerca.
+ * Un motore che non trova nulla (o fallisce) non ferma la gara: si aspettano gli altri, ma non oltre
+ * il tempo massimo della gara, così un motore bloccato su un caso patologico non la tiene aperta.
+ */
+public class PortfolioSolver implements SolverBackend {
+
+    public static final long DEFAULT_TIMEOUT_MILLIS = 30_000;
+
+    private static volatile ExecutorService sharedExecutor;
+
+    private final List<SolverBackend> backends;
+    private final ExecutorService executor;
+    private final long timeoutMillis;
+    private final Map<String, Integer> wins = new LinkedHashMap<>();
+    private volatile Result lastResult;
+
+    public PortfolioSolver() {
+        this(SolverBackends.all());
+    }
+
+    public PortfolioSolver(List<SolverBackend> backends) {
+        this(backends, sharedExecutor());
+    }
+
+    public PortfolioSolver(List<SolverBackend> backends, ExecutorService executor) {
+        this(backends, executor, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    public PortfolioSolver(List<SolverBackend> backends, ExecutorService executor, long timeoutMillis) {
+        if (backends.isEmpty()) {
+            throw new IllegalArgumentException("Serve almeno un motore");
+        }
+        this.backends = new ArrayList<>(backends);
+        this.executor = executor;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public String getName() {
+        return "Portafoglio";
+    }
+
+    @Override
+    public int[] solve(Sudoku sudoku) {
+        return race(sudoku).getSolution();
+    }
+
+    /**
+     * Fa correre i motori sulla board e restituisce il risultato del vincitore
+     * (senza soluzione e senza vincitore se nessuno ne ha trovata una entro il tempo massimo).
+     */
+    public Result race(Sudoku sudoku) {
+        long start = System.nanoTime();
+        CompletionService<Attempt> completion = new ExecutorCompletionService<>(executor);
+        List<Future<Attempt>> futures = new ArrayList<>(backends.size());
+        for (SolverBackend backend : backends) {
+            // ogni motore lavora sulla propria copia, fatta qui: copy() non si può chiamare da un altro thread
+            Sudoku copy = sudoku.copy();
+            futures.add(completion.submit(() -> new Attempt(backend, backend.solve(copy))));
+        }
+
+        Result result = null;
+        int pending = futures.size();
+        long deadline = start + timeoutMillis * 1_000_000L;
+        try {
+            while (pending > 0 && result == null) {
+                Future<Attempt> done = completion.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    break;
+                }
+                pending--;
+                try {
+                    Attempt attempt = done.get();
+                    if (attempt.solution != null) {
+                        result = new Result(attempt.backend.getName(), attempt.solution, System.nanoTime() - start);
+                    }
+                } catch (ExecutionException | CancellationException e) {
+                    // un motore fallito conta come un motore senza risposta
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            for (Future<Attempt> future : futures) {
+                future.cancel(true);
+            }
+        }
+
+        if (result == null) {
+            result = new Result(null, null, System.nanoTime() - start);
+        } else {
+            synchronized (wins) {
+                wins.merge(result.getWinner(), 1, Integer::sum);
+            }
+        }
+        lastResult = result;
+        return result;
+    }
+
+    /**
+     * Risultato dell'ultima gara, {@code null} prima della prima.
+     */
+    public Result getLastResult() {
+        return lastResult;
+    }
+
+    /**
+     * Vittorie per motore da quando il portafoglio esiste.
+     */
+    public Map<String, Integer> getWins() {
+        synchronized (wins) {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(wins));
+        }
+    }
+
+    public List<SolverBackend> getBackends() {
+        return Collections.unmodifiableList(backends);
+    }
+
+    @Override
+    public String toString() {
+        return getName();
+    }
+
+    /**
+     * Executor comune: thread demone creati su richiesta, così i motori cancellati non trattengono l'applicazione.
+     */
+    private static ExecutorService sharedExecutor() {
+        if (sharedExecutor == null) {
+            synchronized (PortfolioSolver.class) {
+                if (sharedExecutor == null) {
+                    AtomicInteger counter = new AtomicInteger();
+                    sharedExecutor = Executors.newCachedThreadPool(runnable -> {
+                        Thread thread = new Thread(runnable, "portfolio-" + counter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+            }
+        }
+        return sharedExecutor;
+    }
+
+    private static final class Attempt {
+        final SolverBackend backend;
+        final int[] solution;
+
+        Attempt(SolverBackend backend, int[] solution) {
+            this.backend = backend;
+            this.solution = solution;
+        }
+    }
+
+    /**
+     * Esito di una gara: il motore vincitore, la sua soluzione e il tempo impiegato.
+     */
+    public static final class Result {
+        private final String winner;
+        private final int[] solution;
+        private final long elapsedNanos;
+
+        Result(String winner, int[] solution, long elapsedNanos) {
+            this.winner = winner;
+            this.solution = solution;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public String getWinner() {
+            return winner;
+        }
+
+        public int[] getSolution() {
+            return solution;
+        }
+
+        public boolean isSolved() {
+            return solution != null;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return isSolved()
+                    ? winner + " in " + elapsedNanos / 1_000_000 + " ms"
+                    : "nessuna soluzione in " + elapsedNanos / 1_000_000 + " ms";
+        }
+    }
+}
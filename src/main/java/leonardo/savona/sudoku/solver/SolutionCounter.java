@@ -0,0 +1,58 @@
+package leonardo.savona.sudoku.solver;
+
+import leonardo.savona.sudoku.model.BoxGeometry;
+import leonardo.savona.sudoku.model.Sudoku;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Controllo rapido dell'unicità: conta le soluzioni con {@link BitboardSolver} fermandosi al limite.
+ * Ogni thread riusa il proprio risolutore per geometria, così una chiamata non alloca lo stato della ricerca.
+ */
+public final class SolutionCounter {
+
+    public static final int NONE = 0;
+    public static final int UNIQUE = 1;
+    public static final int MULTIPLE = 2;
+
+    /**
+     * Oltre questa dimensione la ricerca può durare troppo per farla a ogni modifica nell'interfaccia.
+     */
+    public static final int MAX_INTERACTIVE_SIZE = 16;
+
+    private static final ThreadLocal<Map<BoxGeometry, BitboardSolver>> SOLVERS =
+            ThreadLocal.withInitial(HashMap::new);
+
+    private SolutionCounter() {
+    }
+
+    /**
+     * Numero di soluzioni della board, al massimo {@code limit}.
+     */
+    public static int countUpTo(Sudoku sudoku, int limit) {
+        return solverFor(sudoku.getGeometry()).countSolutions(BitboardSolver.values(sudoku), limit);
+    }
+
+    /**
+     * {@link #NONE}, {@link #UNIQUE} oppure {@link #MULTIPLE}.
+     */
+    public static int countUpToTwo(Sudoku sudoku) {
+        return countUpTo(sudoku, MULTIPLE);
+    }
+
+    public static boolean hasUniqueSolution(Sudoku sudoku) {
+        return countUpToTwo(sudoku) == UNIQUE;
+    }
+
+    public static boolean isInteractive(Sudoku sudoku) {
+        return sudoku.getSize() <= MAX_INTERACTIVE_SIZE;
+    }
+
+    /**
+     * Risolutore del thread corrente per la geometria.
+     */
+    static BitboardSolver solverFor(BoxGeometry geometry) {
+        return SOLVERS.get().computeIfAbsent(geometry, BitboardSolver::new);
+    }
+}
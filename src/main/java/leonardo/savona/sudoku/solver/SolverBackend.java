@@ -0,0 +1,18 @@
+package leonardo.savona.sudoku.solver;
+
+import leonardo.savona.sudoku.model.Sudoku;
+
+/**
+ * Motore di risoluzione completo: dato un sudoku restituisce una soluzione,
+ * senza i passi logici di {@link SudokuSolver}.
+ */
+public interface SolverBackend {
+
+    String getName();
+
+    /**
+     * Soluzione come valori per indice di cella ({@code r * size + c}), oppure {@code null}
+     * se il sudoku non ha soluzione o se il motore si è arreso (tempo scaduto, interruzione).
+     */
+    int[] solve(Sudoku sudoku);
+}
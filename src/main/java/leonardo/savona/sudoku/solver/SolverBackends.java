@@ -0,0 +1,70 @@
+package leonardo.savona.sudoku.solver;
+
+import leonardo.savona.sudoku.model.BoxGeometry;
+import leonardo.savona.sudoku.model.Sudoku;
+import leonardo.savona.sudoku.solver.sat.SatSudokuSolver;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * I motori di risoluzione disponibili.
+ */
+public final class SolverBackends {
+
+    public static final SolverBackend STRATEGIES = backend("Strategie", SudokuSolver::solveLogically);
+    public static final SolverBackend BITBOARD = backend("Bitboard", BitboardSolver::solve);
+    public static final SolverBackend DANCING_LINKS = backend("Dancing Links", DancingLinksSolver::solve);
+    public static final SolverBackend ARENA = backend("Arena", SolverBackends::solveInArena);
+
+    /**
+     * Da questa dimensione in su il backtracking può non finire mai: meglio il motore SAT, che ha un tempo massimo.
+     */
+    private static final int SAT_MIN_SIZE = 25;
+
+    private SolverBackends() {
+    }
+
+    /**
+     * Motore consigliato per la griglia: ricerca a bitboard per le griglie normali, SAT per quelle grandi.
+     */
+    public static SolverBackend defaultFor(BoxGeometry geometry) {
+        return geometry.getSize() >= SAT_MIN_SIZE ? new SatSudokuSolver() : BITBOARD;
+    }
+
+    /**
+     * Motore SAT con il tempo massimo indicato.
+     */
+    public static SolverBackend sat(long timeoutMillis) {
+        return new SatSudokuSolver(timeoutMillis);
+    }
+
+    public static List<SolverBackend> all() {
+        return Arrays.asList(STRATEGIES, BITBOARD, DANCING_LINKS, ARENA, new SatSudokuSolver());
+    }
+
+    private static int[] solveInArena(Sudoku sudoku) {
+        Sudoku solved = ArenaSolver.solve(sudoku);
+        return solved == null ? null : BitboardSolver.values(solved);
+    }
+
+    private static SolverBackend backend(String name, Function<Sudoku, int[]> solver) {
+        return new SolverBackend() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public int[] solve(Sudoku sudoku) {
+                return solver.apply(sudoku);
+            }
+
+            @Override
+            public String toString() {
+                return name;
+            }
+        };
+    }
+}
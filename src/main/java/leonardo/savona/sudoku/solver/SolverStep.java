@@ -1,24 +1,23 @@
 package leonardo.savona.sudoku.solver;
 
-import leonardo.savona.sudoku.model.Cell;
+import leonardo.savona.sudoku.model.BoardSnapshot;
+import leonardo.savona.sudoku.model.BoardView;
 import leonardo.savona.sudoku.model.Sudoku;
 
-import java.util.Arrays;
-
 /**
  * Rappresenta un singolo passo della risoluzione del Sudoku,
  * includendo lo stato della griglia e le informazioni sul numero inserito.
  */
 public class SolverStep {
 
-    private final int[][] matrix;
+    private final BoardSnapshot board;
     private final Integer row;
     private final Integer column;
     private final Integer value;
     private final String strategy;
 
-    private SolverStep(int[][] matrix, Integer row, Integer column, Integer value, String strategy) {
-        this.matrix = deepCopy(matrix);
+    private SolverStep(BoardSnapshot board, Integer row, Integer column, Integer value, String strategy) {
+        this.board = board;
         this.row = row;
         this.column = column;
         this.value = value;
@@ -26,22 +25,26 @@ public class SolverStep {
     }
 
     public static SolverStep capture(Sudoku sudoku, Integer row, Integer column, Integer value, String strategy) {
-        int size = sudoku.getSize();
-        int[][] snapshot = new int[size][size];
-        for (Cell cell : sudoku.getSudoku()) {
-            int r = cell.getCoordinate().getRow();
-            int c = cell.getCoordinate().getColumn();
-            snapshot[r][c] = cell.getValue();
-        }
-        return new SolverStep(snapshot, row, column, value, strategy);
+        return new SolverStep(BoardSnapshot.of(sudoku), row, column, value, strategy);
     }
 
     public static SolverStep ofMatrix(int[][] matrix, Integer row, Integer column, Integer value, String strategy) {
-        return new SolverStep(matrix, row, column, value, strategy);
+        return new SolverStep(BoardSnapshot.of(matrix), row, column, value, strategy);
+    }
+
+    public static SolverStep ofSnapshot(BoardSnapshot board, Integer row, Integer column, Integer value, String strategy) {
+        return new SolverStep(board, row, column, value, strategy);
+    }
+
+    /**
+     * Griglia del passo, da disegnare direttamente senza ricostruire un {@link Sudoku}.
+     */
+    public BoardView getBoard() {
+        return board;
     }
 
     public int[][] getMatrix() {
-        return deepCopy(matrix);
+        return board.toMatrix();
     }
 
     public Integer getRow() {
@@ -64,26 +67,6 @@ public class SolverStep {
         if (other == null) {
             return false;
         }
-        return matricesEqual(this.matrix, other.matrix);
-    }
-
-    private static int[][] deepCopy(int[][] source) {
-        int[][] copy = new int[source.length][];
-        for (int i = 0; i < source.length; i++) {
-            copy[i] = Arrays.copyOf(source[i], source[i].length);
-        }
-        return copy;
-    }
-
-    private static boolean matricesEqual(int[][] a, int[][] b) {
-        if (a == b) return true;
-        if (a == null || b == null) return false;
-        if (a.length != b.length) return false;
-        for (int i = 0; i < a.length; i++) {
-            if (!Arrays.equals(a[i], b[i])) {
-                return false;
-            }
-        }
-        return true;
+        return board.sameValues(other.board);
     }
 }
@@ -0,0 +1,56 @@
+package leonardo.savona.sudoku.solver;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Quali strategie del {@link StrategyScheduler} sono attive, per nome.
+ * {@link #FULL} le accende tutte, {@link #SINGLES} solo quelle che trovano singoli; da entrambi
+ * si ottengono varianti con {@link #with(String)} e {@link #without(String)}.
+ */
+public final class StrategyProfile {
+
+    public static final String BASIC = "Strategia di base";
+    public static final String POSSIBLE_VALUES = "Valori possibili";
+    public static final String SQUARES = "Interazione righe/colonne-quadrati";
+    public static final String NAKED_SUBSETS = "Gruppi di candidati";
+    public static final String HIDDEN_SUBSETS = "Gruppi nascosti";
+    public static final String FISH = "Pesci";
+    public static final String FINNED_FISH = "Pesci con pinne";
+    public static final String PATTERN_OVERLAY = "Sovrapposizione di schemi";
+
+    public static final StrategyProfile FULL = new StrategyProfile(true, Collections.emptySet());
+    public static final StrategyProfile SINGLES = new StrategyProfile(false,
+            Collections.unmodifiableSet(new HashSet<>(Arrays.asList(BASIC, POSSIBLE_VALUES))));
+
+    // con allByDefault le strategie elencate sono quelle spente, altrimenti sono le sole accese
+    private final boolean allByDefault;
+    private final Set<String> exceptions;
+
+    private StrategyProfile(boolean allByDefault, Set<String> exceptions) {
+        this.allByDefault = allByDefault;
+        this.exceptions = exceptions;
+    }
+
+    public boolean isEnabled(String strategy) {
+        return allByDefault != exceptions.contains(strategy);
+    }
+
+    public StrategyProfile with(String strategy) {
+        return isEnabled(strategy) ? this : toggle(strategy);
+    }
+
+    public StrategyProfile without(String strategy) {
+        return isEnabled(strategy) ? toggle(strategy) : this;
+    }
+
+    private StrategyProfile toggle(String strategy) {
+        Set<String> copy = new HashSet<>(exceptions);
+        if (!copy.remove(strategy)) {
+            copy.add(strategy);
+        }
+        return new StrategyProfile(allByDefault, Collections.unmodifiableSet(copy));
+    }
+}
@@ -0,0 +1,135 @@
+package leonardo.savona.sudoku.solver;
+
+import leonardo.savona.sudoku.model.CandidatePropagator;
+import leonardo.savona.sudoku.model.Sudoku;
+import leonardo.savona.sudoku.solver.strategy.SquaresStrategy;
+import leonardo.savona.sudoku.solver.strategy.Strategy;
+import leonardo.savona.sudoku.solver.strategy.advanced.FishStrategy;
+import leonardo.savona.sudoku.solver.strategy.advanced.PatternOverlayStrategy;
+import leonardo.savona.sudoku.solver.strategy.candidates.SubsetStrategy;
+import leonardo.savona.sudoku.solver.strategy.cellbased.BasicStrategy;
+import leonardo.savona.sudoku.solver.strategy.cellbased.CellBasedStrategy;
+import leonardo.savona.sudoku.solver.strategy.cellbased.PossibleValuesStrategy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Esegue le strategie in ordine di costo: dopo ogni progresso si riparte dalla più economica,
+ * così quelle costose girano solo quando le altre non deducono più nulla. Si ferma al punto fisso
+ * (un giro completo senza modifiche), a griglia completa, se la griglia si contraddice o se il thread
+ * viene interrotto.
+ */
+public final class StrategyScheduler {
+
+    /**
+     * Chi esegue le strategie riceve ogni applicazione con il suo nome, per esempio per registrarne i passi.
+     */
+    public interface Recorder {
+        void apply(String strategy, Runnable application);
+    }
+
+    private static final Recorder DIRECT = (strategy, application) -> application.run();
+
+    private final Sudoku sudoku;
+    private final StrategyProfile profile;
+    private final List<Stage> stages = new ArrayList<>();
+
+    public StrategyScheduler(Sudoku sudoku, StrategyProfile profile) {
+        this.sudoku = sudoku;
+        this.profile = profile;
+    }
+
+    /**
+     * Le strategie del risolutore, con i costi relativi; il profilo decide quali restano.
+     */
+    public static StrategyScheduler standard(Sudoku sudoku, StrategyProfile profile) {
+        return new StrategyScheduler(sudoku, profile)
+                .add(StrategyProfile.BASIC, 1, new BasicStrategy(sudoku))
+                .add(StrategyProfile.POSSIBLE_VALUES, 2, new PossibleValuesStrategy(sudoku))
+                .add(StrategyProfile.SQUARES, 3, new SquaresStrategy(sudoku))
+                .add(StrategyProfile.NAKED_SUBSETS, 4, SubsetStrategy.naked(sudoku))
+                .add(StrategyProfile.HIDDEN_SUBSETS, 5, SubsetStrategy.hidden(sudoku))
+                .add(StrategyProfile.FISH, 8, FishStrategy.basic(sudoku))
+                .add(StrategyProfile.FINNED_FISH, 10, FishStrategy.finned(sudoku))
+                .add(StrategyProfile.PATTERN_OVERLAY, 20, new PatternOverlayStrategy(sudoku));
+    }
+
+    /**
+     * Aggiunge una strategia se il profilo la accetta. Le strategie per cella vengono applicate
+     * a ogni cella vuota, una alla volta.
+     */
+    public StrategyScheduler add(String name, int cost, Strategy strategy) {
+        if (profile.isEnabled(name)) {
+            stages.add(new Stage(name, cost, strategy));
+            // ordinamento stabile: a parità di costo resta l'ordine di inserimento
+            stages.sort(Comparator.comparingInt(stage -> stage.cost));
+        }
+        return this;
+    }
+
+    public List<String> getStrategyNames() {
+        List<String> names = new ArrayList<>(stages.size());
+        for (Stage stage : stages) {
+            names.add(stage.name);
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    public boolean run() {
+        return run(DIRECT);
+    }
+
+    /**
+     * Applica le strategie fino al punto fisso.
+     *
+     * @return {@code true} se la griglia è stata completata
+     */
+    public boolean run(Recorder recorder) {
+        CandidatePropagator propagator = sudoku.getPropagator();
+        propagator.clearInconsistent();
+        int next = 0;
+        while (next < stages.size() && !isCompleted() && !Thread.currentThread().isInterrupted()) {
+            long before = sudoku.stateHash();
+            stages.get(next).apply(recorder);
+            if (propagator.isInconsistent()) {
+                // una cella senza candidati: altre deduzioni non avrebbero senso
+                break;
+            }
+            next = sudoku.stateHash() != before ? 0 : next + 1;
+        }
+        return isCompleted();
+    }
+
+    private boolean isCompleted() {
+        return sudoku.getFilledCount() == sudoku.getTopology().getCellCount();
+    }
+
+    private final class Stage {
+        final String name;
+        final int cost;
+        final Strategy strategy;
+
+        Stage(String name, int cost, Strategy strategy) {
+            this.name = name;
+            this.cost = cost;
+            this.strategy = strategy;
+        }
+
+        void apply(Recorder recorder) {
+            if (strategy instanceof CellBasedStrategy) {
+                CellBasedStrategy cellStrategy = (CellBasedStrategy) strategy;
+                for (int index = 0; index < sudoku.getTopology().getCellCount(); index++) {
+                    if (sudoku.getValueAt(index) == 0) {
+                        int cell = index;
+                        recorder.apply(name, () -> cellStrategy.apply(sudoku.getSudoku().get(cell)));
+                    }
+                }
+            } else {
+                recorder.apply(name, strategy::apply);
+            }
+        }
+    }
+}
@@ -1,16 +1,7 @@
 package leonardo.savona.sudoku.solver;
 
-import leonardo.savona.sudoku.model.Cell;
+import leonardo.savona.sudoku.model.BoardSnapshot;
 import leonardo.savona.sudoku.model.Sudoku;
-import leonardo.savona.sudoku.solver.strategy.SquaresStrategy;
-import leonardo.savona.sudoku.solver.strategy.Strategy;
-import leonardo.savona.sudoku.solver.strategy.advanced.XWingStrategy;
-import leonardo.savona.sudoku.solver.strategy.candidates.CoupleOfCandidatesStrategy;
-import leonardo.savona.sudoku.solver.strategy.candidates.HiddenCoupleOfCandidatesStrategy;
-import leonardo.savona.sudoku.solver.strategy.candidates.TrioOfCandidatesStrategy;
-import leonardo.savona.sudoku.solver.strategy.cellbased.BasicStrategy;
-import leonardo.savona.sudoku.solver.strategy.cellbased.CellBasedStrategy;
-import leonardo.savona.sudoku.solver.strategy.cellbased.PossibleValuesStrategy;
 import leonardo.savona.sudoku.util.SudokuModelConverter;
 
 import java.util.ArrayList;
@@ -18,36 +9,42 @@ import java.util.List;
 
 public class SudokuSolver {
 
-    private static final int MAX_ITERATIONS = 10;
     private final Sudoku sudoku;
-    private final BasicStrategy basicStrategy;
-    private final PossibleValuesStrategy possibleValuesStrategy;
-    private final CoupleOfCandidatesStrategy coupleOfCandidatesStrategy;
-    private final SquaresStrategy squaresStrategy;
-    private final TrioOfCandidatesStrategy trioOfCandidatesStrategy;
-    private final HiddenCoupleOfCandidatesStrategy hiddenCoupleOfCandidatesStrategy;
-    private final XWingStrategy xWingStrategy;
+    private final StrategyScheduler scheduler;
 
     private final Chronology chronology;
+    private final SolverBackend backend;
     
-    private SudokuSolver(Sudoku sudoku){
+    private SudokuSolver(Sudoku sudoku, SolverBackend backend, StrategyProfile profile){
         this.chronology = new Chronology();
         this.sudoku = sudoku;
-
-        // strategies
-        this.basicStrategy = new BasicStrategy(sudoku);
-        this.possibleValuesStrategy = new PossibleValuesStrategy(sudoku);
-        this.squaresStrategy = new SquaresStrategy(sudoku);
-        this.coupleOfCandidatesStrategy = new CoupleOfCandidatesStrategy(sudoku);
-        this.trioOfCandidatesStrategy = new TrioOfCandidatesStrategy(sudoku);
-        this.hiddenCoupleOfCandidatesStrategy = new HiddenCoupleOfCandidatesStrategy(sudoku);
-        this.xWingStrategy = new XWingStrategy(sudoku);
+        this.backend = backend;
+        this.scheduler = StrategyScheduler.standard(sudoku, profile);
     }
 
+    /**
+     * Passi logici delle strategie. Se non bastano la griglia resta incompleta: la ricerca
+     * esaustiva non spiega nulla e va chiesta esplicitamente con {@link #solveAndGetSteps(Sudoku, SolverBackend)}.
+     */
     public static List<SolverStep> solveAndGetSteps(Sudoku board) {
+        return solveAndGetSteps(board, null);
+    }
+
+    /**
+     * Come {@link #solveAndGetSteps(Sudoku)}, ma se le strategie non bastano completa la griglia
+     * con {@code backend} (passi "Ricerca"); con {@code null} non completa.
+     */
+    public static List<SolverStep> solveAndGetSteps(Sudoku board, SolverBackend backend) {
+        return solveAndGetSteps(board, backend, StrategyProfile.FULL);
+    }
+
+    /**
+     * Come {@link #solveAndGetSteps(Sudoku, SolverBackend)}, con le sole strategie attive nel profilo.
+     */
+    public static List<SolverStep> solveAndGetSteps(Sudoku board, SolverBackend backend, StrategyProfile profile) {
         try {
             Sudoku workingSudoku = board.copy();
-            SudokuSolver solver = new SudokuSolver(workingSudoku);
+            SudokuSolver solver = new SudokuSolver(workingSudoku, backend, profile);
             solver.solve();
 
             List<SolverStep> steps = solver.getSteps();
@@ -77,83 +74,66 @@ public class SudokuSolver {
         }
     }
 
-    private void solve() {
-        int iterations = 0;
-        boolean solved = false;
-
-        chronology.addStep(SolverStep.capture(sudoku, null, null, null, "Stato iniziale"));
-        while (!solved && iterations < MAX_ITERATIONS) {
-            for (Cell cell : sudoku.getSudoku()) {
-                if (cell.getValue() == 0) {
-                    applyCellStrategy(cell, basicStrategy, "Strategia di base");
-                }
-            }
-
-            for (Cell cell : sudoku.getSudoku()) {
-                if (cell.getValue() == 0) {
-                    applyCellStrategy(cell, possibleValuesStrategy, "Valori possibili");
-                }
-            }
-
-            applyBoardStrategy(squaresStrategy, "Interazione righe/colonne-quadrati");
-
-            applyBoardStrategy(trioOfCandidatesStrategy, "Tris di candidati");
+    /**
+     * Solo le strategie, senza ricerca: valori per indice di cella se bastano a completare la griglia,
+     * altrimenti {@code null}.
+     */
+    public static int[] solveLogically(Sudoku board) {
+        return solveLogically(board, StrategyProfile.FULL);
+    }
 
-            applyBoardStrategy(coupleOfCandidatesStrategy, "Coppie di candidati");
+    public static int[] solveLogically(Sudoku board, StrategyProfile profile) {
+        SudokuSolver solver = new SudokuSolver(board.copy(), null, profile);
+        solver.solve();
+        return solver.sudoku.isComplete() ? BitboardSolver.values(solver.sudoku) : null;
+    }
 
-            applyBoardStrategy(hiddenCoupleOfCandidatesStrategy, "Coppie nascoste");
+    private void solve() {
+        chronology.addStep(SolverStep.capture(sudoku, null, null, null, "Stato iniziale"));
+        boolean solved = scheduler.run(this::applyStrategy);
 
-            solved = isCompleted(sudoku.getSudoku());
-            iterations++;
+        if (!solved && backend != null && !Thread.currentThread().isInterrupted()) {
+            completeBySearch();
         }
-
     }
 
-    private void applyCellStrategy(Cell cell, CellBasedStrategy strategy, String strategyName) {
-        int[][] before = SudokuModelConverter.toMatrix(sudoku);
-        strategy.apply(cell);
-        captureNewValues(before, strategyName);
+    /**
+     * Le strategie non bastano: i numeri mancanti vengono dalla ricerca esaustiva,
+     * un passo per cella, a partire da quanto già dedotto.
+     */
+    private void completeBySearch() {
+        int[] solution = backend.solve(sudoku);
+        if (solution == null) {
+            return;
+        }
+        BoardSnapshot before = BoardSnapshot.of(sudoku);
+        for (int index = 0; index < solution.length; index++) {
+            if (sudoku.getValueAt(index) == 0) {
+                sudoku.getSudoku().get(index).setValue(solution[index]);
+            }
+        }
+        captureNewValues(before, "Ricerca");
     }
 
-    private void applyBoardStrategy(Strategy strategy, String strategyName) {
-        int[][] before = SudokuModelConverter.toMatrix(sudoku);
-        strategy.apply();
+    private void applyStrategy(String strategyName, Runnable application) {
+        BoardSnapshot before = BoardSnapshot.of(sudoku);
+        application.run();
         captureNewValues(before, strategyName);
     }
 
-    private boolean isCompleted(List<Cell> sudoku) {
-        return sudoku.stream().noneMatch(c -> c.getValue() == 0);
-    }
-
-    private void captureNewValues(int[][] before, String strategyName) {
-        int[][] after = SudokuModelConverter.toMatrix(sudoku);
-        int size = after.length;
-        int[][] incremental = copyMatrix(before);
-        for (int r = 0; r < size; r++) {
-            for (int c = 0; c < size; c++) {
-                if (before[r][c] == 0 && after[r][c] != 0) {
-                    incremental[r][c] = after[r][c];
-                    chronology.addStep(SolverStep.ofMatrix(
-                            incremental,
-                            r,
-                            c,
-                            after[r][c],
-                            strategyName
-                    ));
-                    incremental = copyMatrix(incremental);
-                }
+    private void captureNewValues(BoardSnapshot before, String strategyName) {
+        BoardSnapshot incremental = before;
+        for (int index = 0; index < sudoku.getTopology().getCellCount(); index++) {
+            int value = sudoku.getValueAt(index);
+            if (before.getValueAt(index) == 0 && value != 0) {
+                int r = sudoku.getTopology().rowOf(index);
+                int c = sudoku.getTopology().columnOf(index);
+                incremental = incremental.with(r, c, value);
+                chronology.addStep(SolverStep.ofSnapshot(incremental, r, c, value, strategyName));
             }
         }
     }
 
-    private int[][] copyMatrix(int[][] source) {
-        int[][] copy = new int[source.length][];
-        for (int i = 0; i < source.length; i++) {
-            copy[i] = java.util.Arrays.copyOf(source[i], source[i].length);
-        }
-        return copy;
-    }
-
     private List<SolverStep> getSteps() {
         return chronology.getSteps();
     }
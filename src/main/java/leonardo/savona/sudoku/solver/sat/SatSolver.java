@@ -0,0 +1,617 @@
+package leonardo.savona.sudoku.solver.sat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Risolutore SAT CDCL (conflict-driven clause learning) senza dipendenze esterne:
+ * due letterali osservati per clausola (le clausole binarie, la maggior parte di quelle di un sudoku,
+ * hanno liste di implicazione dedicate), scelta delle variabili VSIDS con memoria della fase,
+ * apprendimento al primo punto di dominanza (1UIP) con minimizzazione della clausola appresa,
+ * riavvii secondo la sequenza di Luby e pulizia periodica delle clausole apprese meno utili (LBD).
+ * <p>
+ * Le clausole si passano in formato DIMACS: la variabile {@code v} (da 1) è il letterale {@code v},
+ * la sua negazione {@code -v}. Internamente il letterale è {@code 2 * v + segno}.
+ */
+public final class SatSolver {
+
+    public enum Result {SATISFIABLE, UNSATISFIABLE, UNKNOWN}
+
+    private static final double VAR_DECAY = 0.95;
+    private static final int RESTART_BASE = 100;
+    private static final int NO_REASON = -1;
+    private static final int FIRST_REDUCE = 2000;
+    private static final int REDUCE_INCREMENT = 300;
+
+    private final int variableCount;
+    private final List<int[]> clauses = new ArrayList<>();
+    private final IntList learnts = new IntList();
+    private final IntList lbds = new IntList();
+    private final IntList[] watches;
+    private final IntList[] implications;
+    private final byte[] assigns;
+    private final int[] level;
+    private final int[] reason;
+    private final boolean[] phase;
+    private final boolean[] seen;
+    private final double[] activity;
+    private final VariableHeap order;
+    private final int[] trail;
+    private final IntList trailLimits = new IntList();
+    private final IntList learnt = new IntList();
+    private final IntList removed = new IntList();
+    private final int[] levelStamps;
+    private int stamp;
+    private long nextReduce = FIRST_REDUCE;
+    private int trailSize;
+    private int head;
+    private double variableIncrement = 1;
+    private boolean inconsistent;
+    private boolean[] model;
+    private long conflicts;
+    private long decisions;
+
+    public SatSolver(int variableCount) {
+        this.variableCount = variableCount;
+        this.watches = new IntList[2 * variableCount + 2];
+        this.implications = new IntList[2 * variableCount + 2];
+        for (int i = 0; i < watches.length; i++) {
+            watches[i] = new IntList();
+            implications[i] = new IntList();
+        }
+        this.assigns = new byte[variableCount + 1];
+        this.level = new int[variableCount + 1];
+        this.reason = new int[variableCount + 1];
+        this.phase = new boolean[variableCount + 1];
+        this.seen = new boolean[variableCount + 1];
+        this.activity = new double[variableCount + 1];
+        this.trail = new int[variableCount];
+        this.levelStamps = new int[variableCount + 1];
+        this.order = new VariableHeap(variableCount);
+        for (int v = 1; v <= variableCount; v++) {
+            order.insert(v);
+        }
+    }
+
+    public int getVariableCount() {
+        return variableCount;
+    }
+
+    public int getClauseCount() {
+        return clauses.size();
+    }
+
+    public long getConflicts() {
+        return conflicts;
+    }
+
+    public long getDecisions() {
+        return decisions;
+    }
+
+    /**
+     * Aggiunge una clausola prima della ricerca. Le clausole unitarie vengono assegnate e propagate subito;
+     * una clausola vuota (o falsificata) rende il problema insoddisfacibile.
+     */
+    public void addClause(int... dimacs) {
+        if (inconsistent) {
+            return;
+        }
+        int[] literals = new int[dimacs.length];
+        int count = 0;
+        for (int d : dimacs) {
+            int variable = Math.abs(d);
+            if (d == 0 || variable > variableCount) {
+                throw new IllegalArgumentException("Variabile fuori range: " + d);
+            }
+            int literal = 2 * variable + (d < 0 ? 1 : 0);
+            int value = valueOf(literal);
+            if (value > 0) {
+                return;
+            }
+            if (value < 0) {
+                continue;
+            }
+            boolean duplicate = false;
+            for (int k = 0; k < count; k++) {
+                if (literals[k] == literal) {
+                    duplicate = true;
+                } else if (literals[k] == (literal ^ 1)) {
+                    return;
+                }
+            }
+            if (!duplicate) {
+                literals[count++] = literal;
+            }
+        }
+
+        if (count == 0) {
+            inconsistent = true;
+        } else if (count == 1) {
+            assign(literals[0], NO_REASON);
+            inconsistent = propagate() != NO_REASON;
+        } else {
+            attach(Arrays.copyOf(literals, count));
+        }
+    }
+
+    /**
+     * Cerca un assegnamento che soddisfi tutte le clausole. Restituisce {@link Result#UNKNOWN} se scade
+     * il tempo o se il thread viene interrotto; la ricerca si può rilanciare, le clausole apprese restano.
+     */
+    public Result solve(long timeoutMillis) {
+        model = null;
+        if (inconsistent) {
+            return Result.UNSATISFIABLE;
+        }
+        long deadline = System.nanoTime() + timeoutMillis * 1_000_000L;
+        int restarts = 0;
+        long restartLimit = luby(restarts) * RESTART_BASE;
+        long restartConflicts = 0;
+
+        while (true) {
+            int conflict = propagate();
+            if (conflict != NO_REASON) {
+                conflicts++;
+                restartConflicts++;
+                if (decisionLevel() == 0) {
+                    inconsistent = true;
+                    return Result.UNSATISFIABLE;
+                }
+                int backtrackLevel = analyze(conflict);
+                cancelUntil(backtrackLevel);
+                learn();
+                variableIncrement /= VAR_DECAY;
+                if (learnts.size >= nextReduce) {
+                    reduce();
+                    nextReduce = learnts.size + FIRST_REDUCE + REDUCE_INCREMENT * (conflicts / FIRST_REDUCE);
+                }
+                if ((conflicts & 0xFF) == 0 && expired(deadline)) {
+                    cancelUntil(0);
+                    return Result.UNKNOWN;
+                }
+                continue;
+            }
+
+            if (restartConflicts >= restartLimit) {
+                cancelUntil(0);
+                restarts++;
+                restartLimit = luby(restarts) * RESTART_BASE;
+                restartConflicts = 0;
+            }
+
+            int variable = pickBranchVariable();
+            if (variable == 0) {
+                model = new boolean[variableCount + 1];
+                for (int v = 1; v <= variableCount; v++) {
+                    model[v] = assigns[v] > 0;
+                }
+                cancelUntil(0);
+                return Result.SATISFIABLE;
+            }
+            decisions++;
+            if ((decisions & 0x3FF) == 0 && expired(deadline)) {
+                cancelUntil(0);
+                return Result.UNKNOWN;
+            }
+            trailLimits.add(trailSize);
+            assign(2 * variable + (phase[variable] ? 0 : 1), NO_REASON);
+        }
+    }
+
+    /**
+     * Valore della variabile nell'ultimo modello trovato.
+     */
+    public boolean value(int variable) {
+        if (model == null) {
+            throw new IllegalStateException("Nessun modello disponibile");
+        }
+        return model[variable];
+    }
+
+    private static boolean expired(long deadline) {
+        return System.nanoTime() - deadline > 0 || Thread.currentThread().isInterrupted();
+    }
+
+    private int decisionLevel() {
+        return trailLimits.size;
+    }
+
+    /**
+     * 1 se il letterale è vero, -1 se è falso, 0 se la variabile non è assegnata.
+     */
+    private int valueOf(int literal) {
+        int value = assigns[literal >> 1];
+        return (literal & 1) == 0 ? value : -value;
+    }
+
+    private void assign(int literal, int from) {
+        int variable = literal >> 1;
+        assigns[variable] = (byte) ((literal & 1) == 0 ? 1 : -1);
+        level[variable] = decisionLevel();
+        reason[variable] = from;
+        trail[trailSize++] = literal;
+    }
+
+    private int attach(int[] literals) {
+        int index = clauses.size();
+        clauses.add(literals);
+        if (literals.length == 2) {
+            // coppie (letterale implicato, clausola) nella lista del letterale che diventa falso
+            implications[literals[0]].add(literals[1]);
+            implications[literals[0]].add(index);
+            implications[literals[1]].add(literals[0]);
+            implications[literals[1]].add(index);
+        } else {
+            watches[literals[0]].add(index);
+            watches[literals[1]].add(index);
+        }
+        return index;
+    }
+
+    /**
+     * Propaga gli assegnamenti in coda; restituisce l'indice della clausola in conflitto o {@code -1}.
+     * Il letterale implicato da una clausola è sempre in posizione 0, quello falso osservato in posizione 1.
+     */
+    private int propagate() {
+        while (head < trailSize) {
+            int falseLiteral = trail[head++] ^ 1;
+            IntList pairs = implications[falseLiteral];
+            for (int k = 0; k < pairs.size; k += 2) {
+                int implied = pairs.data[k];
+                int value = valueOf(implied);
+                if (value > 0) {
+                    continue;
+                }
+                int index = pairs.data[k + 1];
+                if (value < 0) {
+                    head = trailSize;
+                    return index;
+                }
+                int[] clause = clauses.get(index);
+                clause[0] = implied;
+                clause[1] = falseLiteral;
+                assign(implied, index);
+            }
+
+            IntList list = watches[falseLiteral];
+            int[] data = list.data;
+            int n = list.size;
+            int i = 0;
+            int j = 0;
+            while (i < n) {
+                int index = data[i++];
+                int[] clause = clauses.get(index);
+                if (clause == null) {
+                    continue;
+                }
+                if (clause[0] == falseLiteral) {
+                    clause[0] = clause[1];
+                    clause[1] = falseLiteral;
+                }
+                if (valueOf(clause[0]) > 0) {
+                    data[j++] = index;
+                    continue;
+                }
+                boolean moved = false;
+                for (int k = 2; k < clause.length; k++) {
+                    if (valueOf(clause[k]) >= 0) {
+                        clause[1] = clause[k];
+                        clause[k] = falseLiteral;
+                        watches[clause[1]].add(index);
+                        moved = true;
+                        break;
+                    }
+                }
+                if (moved) {
+                    continue;
+                }
+                data[j++] = index;
+                if (valueOf(clause[0]) < 0) {
+                    while (i < n) {
+                        data[j++] = data[i++];
+                    }
+                    list.size = j;
+                    head = trailSize;
+                    return index;
+                }
+                assign(clause[0], index);
+            }
+            list.size = j;
+        }
+        return NO_REASON;
+    }
+
+    /**
+     * Analisi del conflitto fino al primo punto di dominanza: lascia in {@link #learnt} la clausola appresa
+     * (letterale asserito in posizione 0, letterale del livello più alto in posizione 1) e restituisce
+     * il livello a cui tornare.
+     */
+    private int analyze(int conflict) {
+        learnt.clear();
+        learnt.add(0);
+        int pending = 0;
+        int literal = -1;
+        int index = trailSize - 1;
+        int current = decisionLevel();
+
+        do {
+            int[] clause = clauses.get(conflict);
+            for (int k = literal == -1 ? 0 : 1; k < clause.length; k++) {
+                int q = clause[k];
+                int variable = q >> 1;
+                if (!seen[variable] && level[variable] > 0) {
+                    seen[variable] = true;
+                    bump(variable);
+                    if (level[variable] >= current) {
+                        pending++;
+                    } else {
+                        learnt.add(q);
+                    }
+                }
+            }
+            while (!seen[trail[index] >> 1]) {
+                index--;
+            }
+            literal = trail[index--];
+            conflict = reason[literal >> 1];
+            seen[literal >> 1] = false;
+            pending--;
+        } while (pending > 0);
+        learnt.data[0] = literal ^ 1;
+
+        // minimizzazione locale: un letterale è superfluo se la sua clausola ragione è già coperta
+        removed.clear();
+        int kept = 1;
+        for (int k = 1; k < learnt.size; k++) {
+            int q = learnt.data[k];
+            if (redundant(q >> 1)) {
+                removed.add(q);
+            } else {
+                learnt.data[kept++] = q;
+            }
+        }
+        for (int k = 0; k < removed.size; k++) {
+            seen[removed.data[k] >> 1] = false;
+        }
+        learnt.size = kept;
+
+        int backtrackLevel = 0;
+        for (int k = 1; k < learnt.size; k++) {
+            int variable = learnt.data[k] >> 1;
+            seen[variable] = false;
+            if (level[variable] > backtrackLevel) {
+                backtrackLevel = level[variable];
+                int swap = learnt.data[1];
+                learnt.data[1] = learnt.data[k];
+                learnt.data[k] = swap;
+            }
+        }
+        return backtrackLevel;
+    }
+
+    private boolean redundant(int variable) {
+        int from = reason[variable];
+        if (from == NO_REASON) {
+            return false;
+        }
+        int[] clause = clauses.get(from);
+        for (int k = 1; k < clause.length; k++) {
+            int other = clause[k] >> 1;
+            if (!seen[other] && level[other] > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void learn() {
+        if (learnt.size == 1) {
+            assign(learnt.data[0], NO_REASON);
+            return;
+        }
+        int index = attach(Arrays.copyOf(learnt.data, learnt.size));
+        learnts.add(index);
+        while (lbds.size <= index) {
+            lbds.add(0);
+        }
+        lbds.data[index] = literalBlockDistance(learnt);
+        assign(learnt.data[0], index);
+    }
+
+    /**
+     * Numero di livelli decisionali distinti nella clausola: più è basso, più la clausola è utile.
+     */
+    private int literalBlockDistance(IntList literals) {
+        stamp++;
+        int distance = 0;
+        for (int k = 0; k < literals.size; k++) {
+            int l = level[literals.data[k] >> 1];
+            if (levelStamps[l] != stamp) {
+                levelStamps[l] = stamp;
+                distance++;
+            }
+        }
+        return distance;
+    }
+
+    /**
+     * Elimina metà delle clausole apprese, tenendo quelle con LBD basso e quelle che fanno da ragione
+     * a un assegnamento in corso. Le liste dei letterali osservati si ripuliscono durante la propagazione.
+     */
+    private void reduce() {
+        Integer[] order = new Integer[learnts.size];
+        for (int k = 0; k < learnts.size; k++) {
+            order[k] = learnts.data[k];
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(lbds.data[b], lbds.data[a]));
+        int toRemove = order.length / 2;
+        learnts.clear();
+        for (int index : order) {
+            int[] clause = clauses.get(index);
+            boolean locked = reason[clause[0] >> 1] == index && valueOf(clause[0]) > 0;
+            if (toRemove > 0 && lbds.data[index] > 2 && !locked) {
+                clauses.set(index, null);
+                toRemove--;
+            } else {
+                learnts.add(index);
+            }
+        }
+    }
+
+    private void cancelUntil(int target) {
+        if (decisionLevel() <= target) {
+            return;
+        }
+        int limit = trailLimits.data[target];
+        for (int k = trailSize - 1; k >= limit; k--) {
+            int variable = trail[k] >> 1;
+            phase[variable] = assigns[variable] > 0;
+            assigns[variable] = 0;
+            reason[variable] = NO_REASON;
+            if (!order.contains(variable)) {
+                order.insert(variable);
+            }
+        }
+        trailSize = limit;
+        head = limit;
+        trailLimits.size = target;
+    }
+
+    private int pickBranchVariable() {
+        while (!order.isEmpty()) {
+            int variable = order.removeMax();
+            if (assigns[variable] == 0) {
+                return variable;
+            }
+        }
+        return 0;
+    }
+
+    private void bump(int variable) {
+        if ((activity[variable] += variableIncrement) > 1e100) {
+            for (int v = 1; v <= variableCount; v++) {
+                activity[v] *= 1e-100;
+            }
+            variableIncrement *= 1e-100;
+        }
+        if (order.contains(variable)) {
+            order.increased(variable);
+        }
+    }
+
+    /**
+     * Sequenza di Luby (1, 1, 2, 1, 1, 2, 4, ...) all'indice {@code x}.
+     */
+    static long luby(int x) {
+        int size = 1;
+        int sequence = 0;
+        while (size < x + 1) {
+            sequence++;
+            size = 2 * size + 1;
+        }
+        while (size - 1 != x) {
+            size = (size - 1) >> 1;
+            sequence--;
+            x = x % size;
+        }
+        return 1L << sequence;
+    }
+
+    private static final class IntList {
+        int[] data = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+
+    /**
+     * Heap binario delle variabili ordinato per attività decrescente.
+     */
+    private final class VariableHeap {
+        private final int[] heap;
+        private final int[] positions;
+        private int size;
+
+        VariableHeap(int variableCount) {
+            this.heap = new int[variableCount];
+            this.positions = new int[variableCount + 1];
+            Arrays.fill(positions, -1);
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        boolean contains(int variable) {
+            return positions[variable] >= 0;
+        }
+
+        void insert(int variable) {
+            heap[size] = variable;
+            positions[variable] = size;
+            up(size++);
+        }
+
+        void increased(int variable) {
+            up(positions[variable]);
+        }
+
+        int removeMax() {
+            int top = heap[0];
+            positions[top] = -1;
+            if (--size > 0) {
+                heap[0] = heap[size];
+                positions[heap[0]] = 0;
+                down(0);
+            }
+            return top;
+        }
+
+        private void up(int i) {
+            int variable = heap[i];
+            while (i > 0) {
+                int parent = (i - 1) >> 1;
+                if (activity[heap[parent]] >= activity[variable]) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                positions[heap[i]] = i;
+                i = parent;
+            }
+            heap[i] = variable;
+            positions[variable] = i;
+        }
+
+        private void down(int i) {
+            int variable = heap[i];
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && activity[heap[child + 1]] > activity[heap[child]]) {
+                    child++;
+                }
+                if (activity[heap[child]] <= activity[variable]) {
+                    break;
+                }
+                heap[i] = heap[child];
+                positions[heap[i]] = i;
+                i = child;
+            }
+            heap[i] = variable;
+            positions[variable] = i;
+        }
+    }
+}
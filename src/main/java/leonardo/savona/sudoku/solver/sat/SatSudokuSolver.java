@@ -0,0 +1,57 @@
+package leonardo.savona.sudoku.solver.sat;
+
+import leonardo.savona.sudoku.model.Sudoku;
+import leonardo.savona.sudoku.solver.SolverBackend;
+
+/**
+ * Motore di risoluzione basato su {@link SatSolver}: pensato per le griglie grandi e per le varianti
+ * (unità aggiuntive), dove la ricerca con backtracking non ha garanzie sui tempi.
+ * Se il tempo a disposizione finisce restituisce {@code null} e {@link #getLastResult()} vale
+ * {@link SatSolver.Result#UNKNOWN}.
+ */
+public class SatSudokuSolver implements SolverBackend {
+
+    public static final long DEFAULT_TIMEOUT_MILLIS = 10_000;
+
+    private final long timeoutMillis;
+    private final int[][] extraUnits;
+    private volatile SatSolver.Result lastResult;
+
+    public SatSudokuSolver() {
+        this(DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    public SatSudokuSolver(long timeoutMillis) {
+        this(timeoutMillis, new int[0][]);
+    }
+
+    public SatSudokuSolver(long timeoutMillis, int[][] extraUnits) {
+        this.timeoutMillis = timeoutMillis;
+        this.extraUnits = extraUnits;
+    }
+
+    @Override
+    public String getName() {
+        return "SAT";
+    }
+
+    @Override
+    public int[] solve(Sudoku sudoku) {
+        SudokuCnfEncoder encoder = new SudokuCnfEncoder(sudoku, extraUnits);
+        SatSolver solver = encoder.encode();
+        lastResult = solver.solve(timeoutMillis);
+        return lastResult == SatSolver.Result.SATISFIABLE ? encoder.decode(solver) : null;
+    }
+
+    /**
+     * Esito dell'ultima chiamata a {@link #solve(Sudoku)}, {@code null} se non è ancora stata fatta.
+     */
+    public SatSolver.Result getLastResult() {
+        return lastResult;
+    }
+
+    @Override
+    public String toString() {
+        return getName();
+    }
+}
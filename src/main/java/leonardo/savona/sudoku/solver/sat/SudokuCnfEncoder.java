@@ -0,0 +1,200 @@
+package leonardo.savona.sudoku.solver.sat;
+
+import leonardo.savona.sudoku.model.Candidates;
+import leonardo.savona.sudoku.model.Sudoku;
+import leonardo.savona.sudoku.model.Topology;
+
+import java.util.Arrays;
+
+/**
+ * Traduce un sudoku in clausole CNF a partire dalla {@link Topology}.
+ * Le celle già piene non generano variabili: ne nasce una sola per ogni coppia (cella vuota, numero)
+ * non esclusa dai numeri già presenti nelle sue unità. Per ogni cella e per ogni numero di ogni unità
+ * servono "almeno uno" e "al più uno" (a coppie) sulle variabili rimaste.
+ * Le unità aggiuntive (diagonali, gruppi delle varianti) seguono le stesse regole.
+ */
+public final class SudokuCnfEncoder {
+
+    private final Sudoku sudoku;
+    private final int size;
+    private final int[][] extraUnits;
+    private final int[] variables;
+    private final int[] cellOf;
+    private final int[] numberOf;
+    private final int variableCount;
+    private final boolean conflicting;
+
+    public SudokuCnfEncoder(Sudoku sudoku) {
+        this(sudoku, new int[0][]);
+    }
+
+    public SudokuCnfEncoder(Sudoku sudoku, int[][] extraUnits) {
+        this.sudoku = sudoku;
+        this.size = sudoku.getSize();
+        this.extraUnits = extraUnits;
+        Topology topology = sudoku.getTopology();
+        int cellCount = topology.getCellCount();
+
+        long[] placed = new long[topology.getUnitCount() + extraUnits.length];
+        boolean duplicate = false;
+        for (int index = 0; index < cellCount; index++) {
+            int value = sudoku.getValueAt(index);
+            if (value == 0) {
+                continue;
+            }
+            for (int unit : topology.unitsOf(index)) {
+                duplicate |= Candidates.contains(placed[unit], value);
+                placed[unit] = Candidates.add(placed[unit], value);
+            }
+        }
+        for (int e = 0; e < extraUnits.length; e++) {
+            int unit = topology.getUnitCount() + e;
+            for (int index : extraUnits[e]) {
+                int value = sudoku.getValueAt(index);
+                if (value != 0) {
+                    duplicate |= Candidates.contains(placed[unit], value);
+                    placed[unit] = Candidates.add(placed[unit], value);
+                }
+            }
+        }
+        this.conflicting = duplicate;
+
+        long[] excluded = new long[cellCount];
+        for (int index = 0; index < cellCount; index++) {
+            for (int unit : topology.unitsOf(index)) {
+                excluded[index] |= placed[unit];
+            }
+        }
+        for (int e = 0; e < extraUnits.length; e++) {
+            for (int index : extraUnits[e]) {
+                excluded[index] |= placed[topology.getUnitCount() + e];
+            }
+        }
+
+        this.variables = new int[cellCount * size];
+        int count = 0;
+        for (int index = 0; index < cellCount; index++) {
+            if (sudoku.getValueAt(index) != 0) {
+                continue;
+            }
+            long candidates = Candidates.all(size) & ~excluded[index];
+            for (long m = candidates; m != 0; m &= m - 1) {
+                variables[index * size + Long.numberOfTrailingZeros(m)] = ++count;
+            }
+        }
+        this.variableCount = count;
+        this.cellOf = new int[count + 1];
+        this.numberOf = new int[count + 1];
+        for (int k = 0; k < variables.length; k++) {
+            if (variables[k] != 0) {
+                cellOf[variables[k]] = k / size;
+                numberOf[variables[k]] = k % size + 1;
+            }
+        }
+    }
+
+    public int getVariableCount() {
+        return variableCount;
+    }
+
+    /**
+     * Variabile "la cella contiene il numero", oppure 0 se la coppia è già esclusa (o la cella è piena).
+     */
+    public int variable(int index, int number) {
+        return variables[index * size + number - 1];
+    }
+
+    public int cellOf(int variable) {
+        return cellOf[variable];
+    }
+
+    public int numberOf(int variable) {
+        return numberOf[variable];
+    }
+
+    /**
+     * Crea un {@link SatSolver} con tutte le clausole del sudoku.
+     */
+    public SatSolver encode() {
+        SatSolver solver = new SatSolver(variableCount);
+        if (conflicting) {
+            solver.addClause();
+            return solver;
+        }
+        Topology topology = sudoku.getTopology();
+        int[] group = new int[size];
+
+        for (int index = 0; index < topology.getCellCount(); index++) {
+            if (sudoku.getValueAt(index) != 0) {
+                continue;
+            }
+            int count = 0;
+            for (int number = 1; number <= size; number++) {
+                int v = variable(index, number);
+                if (v != 0) {
+                    group[count++] = v;
+                }
+            }
+            exactlyOne(solver, group, count);
+        }
+
+        for (int unit = 0; unit < topology.getUnitCount(); unit++) {
+            encodeUnit(solver, topology.getUnit(unit), group);
+        }
+        for (int[] unit : extraUnits) {
+            encodeUnit(solver, unit, group);
+        }
+        return solver;
+    }
+
+    /**
+     * Legge la soluzione dal modello: valori per indice di cella, givens compresi.
+     */
+    public int[] decode(SatSolver solver) {
+        int[] values = new int[size * size];
+        for (int index = 0; index < values.length; index++) {
+            values[index] = sudoku.getValueAt(index);
+        }
+        for (int v = 1; v <= variableCount; v++) {
+            if (solver.value(v)) {
+                values[cellOf[v]] = numberOf[v];
+            }
+        }
+        return values;
+    }
+
+    private void encodeUnit(SatSolver solver, int[] cells, int[] group) {
+        boolean[] present = new boolean[size + 1];
+        for (int index : cells) {
+            present[sudoku.getValueAt(index)] = true;
+        }
+        for (int number = 1; number <= size; number++) {
+            int count = 0;
+            for (int index : cells) {
+                int v = variable(index, number);
+                if (v != 0) {
+                    group[count++] = v;
+                }
+            }
+            // le unità aggiuntive possono essere più corte della griglia: lì il numero non è obbligatorio
+            if (present[number] || cells.length < size) {
+                atMostOne(solver, group, count);
+            } else {
+                exactlyOne(solver, group, count);
+            }
+        }
+    }
+
+    private static void exactlyOne(SatSolver solver, int[] group, int count) {
+        solver.addClause(Arrays.copyOf(group, count));
+        atMostOne(solver, group, count);
+    }
+
+    private static void atMostOne(SatSolver solver, int[] group, int count) {
+        for (int a = 0; a < count; a++) {
+            for (int b = a + 1; b < count; b++) {
+                solver.addClause(-group[a], -group[b]);
+            }
+        }
+    }
+}
@@ -1,82 +1,109 @@
 package leonardo.savona.sudoku.solver.strategy;
 
+import leonardo.savona.sudoku.model.CandidatePropagator;
+import leonardo.savona.sudoku.model.Candidates;
 import leonardo.savona.sudoku.model.Sudoku;
-import leonardo.savona.sudoku.model.square.Square;
-import leonardo.savona.sudoku.model.square.SquareColumn;
-import leonardo.savona.sudoku.model.square.SquareRow;
-import leonardo.savona.sudoku.util.SudokuUtils;
+import leonardo.savona.sudoku.model.Topology;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.List;
 
+/**
+ * Interazione tra quadrati e righe/colonne (candidati bloccati).
+ * <ul>
+ *     <li>se in un quadrato un numero può stare solo su una riga (o colonna), sparisce dal resto di quella riga;</li>
+ *     <li>se in una riga (o colonna) un numero può stare solo dentro un quadrato, sparisce dal resto del quadrato.</li>
+ * </ul>
+ * Ogni incrocio quadrato-linea è precalcolato come coppia di maschere di posizioni, una nel quadrato
+ * e una nella linea: il controllo di un numero su un incrocio sono poche operazioni sui bit.
+ */
 public class SquaresStrategy extends Strategy {
 
-    public SquaresStrategy(Sudoku sudoku) {
-        super(sudoku);
-    }
+    private static final int ROW = 0;
+    private static final int COLUMN = 1;
+    private static final int BOX = 2;
 
-    @Override
-    public void apply() {
-        for (Square square : sudoku.getSquares()) {
+    private final Topology topology;
 
-            Map<SquareRow, Set<Integer>> rowsMap = new HashMap<>();
-            for (SquareRow squareRow : square.getRows()) {
-                rowsMap.put(squareRow, squareRow.getPossibleValuesPresentInEveryCells());
-            }
+    // incrocio i: quadrato boxes[i] e linea lines[i], con le posizioni comuni in ciascuna delle due unità
+    private final int[] boxes;
+    private final int[] lines;
+    private final long[] boxMasks;
+    private final long[] lineMasks;
 
-            for (Map.Entry<SquareRow, Set<Integer>> entry : rowsMap.entrySet()) {
-                for (int n : entry.getValue()) {
-                    if (!square.getRows().stream()
-                            .filter(r -> !r.equals(entry.getKey()))
-                            .flatMap(r -> r.getPossibleValues().stream())
-                            .collect(Collectors.toSet())
-                            .contains(n)) {
-
-                        sudoku.getSudoku().forEach(c -> {
-                            if (c.getCoordinate().getRow() == entry.getKey().getIndex() &&
-                                    !entry.getKey().getCells().contains(c) &&
-                                    !c.getPossibleValues().isEmpty()) {
+    public SquaresStrategy(Sudoku sudoku) {
+        super(sudoku);
+        this.topology = sudoku.getTopology();
 
-                                c.removePossibleValue(n);
-                                if (c.isNumberFound()) {
-                                    SudokuUtils.clearOtherCellsPossibleValues(c, sudoku);
-                                }
-                            }
-                        });
+        List<long[]> intersections = new ArrayList<>();
+        for (int box = 0; box < sudoku.getSize(); box++) {
+            int boxUnit = topology.boxUnit(box);
+            for (int j = ROW; j <= COLUMN; j++) {
+                // una voce per linea che attraversa il quadrato: {linea, maschera nel quadrato, maschera nella linea}
+                List<long[]> crossing = new ArrayList<>();
+                for (int index : topology.getUnit(boxUnit)) {
+                    int line = topology.unitsOf(index)[j];
+                    long[] entry = null;
+                    for (long[] candidate : crossing) {
+                        if (candidate[0] == line) {
+                            entry = candidate;
+                        }
                     }
+                    if (entry == null) {
+                        entry = new long[]{line, 0L, 0L};
+                        crossing.add(entry);
+                    }
+                    entry[1] |= 1L << topology.positionInUnit(index, BOX);
+                    entry[2] |= 1L << topology.positionInUnit(index, j);
+                }
+                for (long[] entry : crossing) {
+                    intersections.add(new long[]{boxUnit, entry[0], entry[1], entry[2]});
                 }
             }
+        }
 
-            Map<SquareColumn, Set<Integer>> columnsMap = new HashMap<>();
-            for (SquareColumn squareColumn : square.getColumns()) {
-                columnsMap.put(squareColumn, squareColumn.getPossibleValuesPresentInEveryCells());
-            }
+        int count = intersections.size();
+        this.boxes = new int[count];
+        this.lines = new int[count];
+        this.boxMasks = new long[count];
+        this.lineMasks = new long[count];
+        for (int i = 0; i < count; i++) {
+            long[] intersection = intersections.get(i);
+            boxes[i] = (int) intersection[0];
+            lines[i] = (int) intersection[1];
+            boxMasks[i] = intersection[2];
+            lineMasks[i] = intersection[3];
+        }
+    }
 
-            for (Map.Entry<SquareColumn, Set<Integer>> entry : columnsMap.entrySet()) {
-                for (int n : entry.getValue()) {
-                    if (!square.getColumns().stream()
-                            .filter(c -> !c.equals(entry.getKey()))
-                            .flatMap(c -> c.getPossibleValues().stream())
-                            .collect(Collectors.toSet())
-                            .contains(n)) {
+    @Override
+    public void apply() {
+        CandidatePropagator propagator = sudoku.getPropagator();
+        for (int number = 1; number <= sudoku.getSize(); number++) {
+            long bit = Candidates.of(number);
+            for (int i = 0; i < boxes.length; i++) {
+                int box = boxes[i];
+                int line = lines[i];
 
-                        sudoku.getSudoku().forEach(c -> {
-                            if (c.getCoordinate().getColumn() == entry.getKey().getIndex() &&
-                                    !entry.getKey().getCells().contains(c) &&
-                                    !c.getPossibleValues().isEmpty()){
+                // nel quadrato il numero sta solo sull'incrocio: fuori dal quadrato la linea lo perde
+                long inBox = sudoku.getUnitPositions(box, number);
+                if (inBox != 0 && (inBox & ~boxMasks[i]) == 0 && !sudoku.hasPendingCells(box)) {
+                    removeAt(propagator, line, sudoku.getUnitPositions(line, number) & ~lineMasks[i], bit);
+                }
 
-                                c.removePossibleValue(n);
-                                if (c.isNumberFound()) {
-                                    SudokuUtils.clearOtherCellsPossibleValues(c, sudoku);
-                                }
-                            }
-                        });
-                    }
+                // nella linea il numero sta solo sull'incrocio: il resto del quadrato lo perde
+                long inLine = sudoku.getUnitPositions(line, number);
+                if (inLine != 0 && (inLine & ~lineMasks[i]) == 0 && !sudoku.hasPendingCells(line)) {
+                    removeAt(propagator, box, sudoku.getUnitPositions(box, number) & ~boxMasks[i], bit);
                 }
             }
+        }
+    }
 
+    private void removeAt(CandidatePropagator propagator, int unit, long positions, long bit) {
+        int[] cells = topology.getUnit(unit);
+        for (long m = positions; m != 0; m &= m - 1) {
+            propagator.eliminate(cells[Long.numberOfTrailingZeros(m)], bit);
         }
     }
 }
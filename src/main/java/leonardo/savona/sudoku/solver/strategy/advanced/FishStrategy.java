@@ -0,0 +1,191 @@
+package leonardo.savona.sudoku.solver.strategy.advanced;
+
+import leonardo.savona.sudoku.model.CandidatePropagator;
+import leonardo.savona.sudoku.model.Candidates;
+import leonardo.savona.sudoku.model.Sudoku;
+import leonardo.savona.sudoku.model.Topology;
+import leonardo.savona.sudoku.solver.strategy.Strategy;
+
+/**
+ * Pesci (X-Wing, Swordfish, Jellyfish): per un numero si scelgono da 2 a {@link #MAX_SIZE} righe base;
+ * se nelle righe base il numero sta solo in altrettante colonne (l'unione delle maschere di posizione),
+ * le colonne di copertura lo perdono fuori dalle righe base. Lo stesso vale scambiando righe e colonne.
+ * <p>
+ * Nella variante con pinne l'unione ha fino a {@link #MAX_FIN_LINES} colonne in più: se tutte le celle
+ * in quelle colonne (le pinne) stanno in un solo quadrato, il numero si toglie solo dalle celle delle
+ * colonne di copertura dentro quel quadrato, che vedono tutte le pinne. Ne fanno parte anche i pesci
+ * "sashimi", in cui una riga base ha sulla copertura una sola cella o nessuna.
+ * Le righe con celle dai candidati non ancora calcolati non possono fare da base.
+ */
+public class FishStrategy extends Strategy {
+
+    public static final int MAX_SIZE = 4;
+    public static final int MAX_FIN_LINES = 2;
+
+    private static final int ROW = 0;
+    private static final int COLUMN = 1;
+
+    private final boolean finned;
+    private final Topology topology;
+
+    // numero e orientamento correnti: maschere di posizione per linea base e linee utilizzabili come base
+    private final long[] masks;
+    private final int[] lines;
+    private int count;
+    private int number;
+    private int orientation;
+
+    private FishStrategy(Sudoku sudoku, boolean finned) {
+        super(sudoku);
+        this.finned = finned;
+        this.topology = sudoku.getTopology();
+        this.masks = new long[sudoku.getSize()];
+        this.lines = new int[sudoku.getSize()];
+    }
+
+    /**
+     * Pesci semplici, da 2 a {@link #MAX_SIZE} linee.
+     */
+    public static FishStrategy basic(Sudoku sudoku) {
+        return new FishStrategy(sudoku, false);
+    }
+
+    /**
+     * Solo pesci con pinne (e sashimi), da 2 a {@link #MAX_SIZE} linee.
+     */
+    public static FishStrategy finned(Sudoku sudoku) {
+        return new FishStrategy(sudoku, true);
+    }
+
+    @Override
+    public void apply() {
+        for (number = 1; number <= sudoku.getSize(); number++) {
+            for (orientation = ROW; orientation <= COLUMN; orientation++) {
+                // dopo ogni eliminazione si ricarica: la propagazione può aver cambiato le linee base
+                while (applyToNumber()) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean applyToNumber() {
+        int extra = finned ? MAX_FIN_LINES : 0;
+        count = 0;
+        for (int line = 0; line < sudoku.getSize(); line++) {
+            int unit = baseUnit(line);
+            long positions = sudoku.getUnitPositions(unit, number);
+            masks[line] = positions;
+            if (positions != 0 && Long.bitCount(positions) <= MAX_SIZE + extra && !sudoku.hasPendingCells(unit)) {
+                lines[count++] = line;
+            }
+        }
+        int limit = Math.min(MAX_SIZE, count);
+        for (int size = 2; size <= limit; size++) {
+            if (search(size, 0, 0, 0L, 0L)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Prova le basi di {@code size} linee a partire da {@code start}; {@code base} sono le linee scelte
+     * e {@code union} le colonne (o righe) che occupano.
+     *
+     * @return {@code true} se un pesce ha modificato la griglia
+     */
+    private boolean search(int size, int start, int depth, long union, long base) {
+        int maxCover = finned ? size + MAX_FIN_LINES : size;
+        int remaining = size - depth - 1;
+        for (int i = start; i < count - remaining; i++) {
+            int line = lines[i];
+            long extended = union | masks[line];
+            int cover = Long.bitCount(extended);
+            if (cover > maxCover) {
+                continue;
+            }
+            long withLine = base | 1L << line;
+            if (remaining > 0) {
+                if (search(size, i + 1, depth + 1, extended, withLine)) {
+                    return true;
+                }
+            } else if (!finned && cover == size) {
+                if (eliminate(extended, withLine, -1)) {
+                    return true;
+                }
+            } else if (finned && cover > size && eliminateWithFins(size, extended, withLine)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Prova come pinne ogni gruppo di colonne in eccesso dell'unione.
+     */
+    private boolean eliminateWithFins(int size, long union, long base) {
+        int fins = Long.bitCount(union) - size;
+        for (long finLines = union; finLines != 0; finLines = (finLines - 1) & union) {
+            if (Long.bitCount(finLines) != fins) {
+                continue;
+            }
+            int box = finBox(finLines, base);
+            if (box >= 0 && eliminate(union & ~finLines, base, box)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Quadrato che contiene tutte le pinne, oppure -1 se sono sparse.
+     */
+    private int finBox(long finLines, long base) {
+        int box = -1;
+        for (long b = base; b != 0; b &= b - 1) {
+            int line = Long.numberOfTrailingZeros(b);
+            int[] cells = topology.getUnit(baseUnit(line));
+            for (long f = masks[line] & finLines; f != 0; f &= f - 1) {
+                int cellBox = topology.boxOf(cells[Long.numberOfTrailingZeros(f)]);
+                if (box >= 0 && cellBox != box) {
+                    return -1;
+                }
+                box = cellBox;
+            }
+        }
+        return box;
+    }
+
+    /**
+     * Toglie il numero dalle linee di copertura fuori dalle linee base; con {@code box} diverso da -1
+     * solo dentro quel quadrato.
+     */
+    private boolean eliminate(long cover, long base, int box) {
+        CandidatePropagator propagator = sudoku.getPropagator();
+        long bit = Candidates.of(number);
+        long before = sudoku.stateHash();
+        for (long c = cover; c != 0; c &= c - 1) {
+            int unit = coverUnit(Long.numberOfTrailingZeros(c));
+            int[] cells = topology.getUnit(unit);
+            // nella linea di copertura la posizione di una cella è l'indice della sua linea base
+            for (long p = sudoku.getUnitPositions(unit, number) & ~base; p != 0; p &= p - 1) {
+                int index = cells[Long.numberOfTrailingZeros(p)];
+                if (box < 0 || topology.boxOf(index) == box) {
+                    propagator.eliminate(index, bit);
+                }
+            }
+        }
+        return sudoku.stateHash() != before;
+    }
+
+    private int baseUnit(int line) {
+        return orientation == ROW ? topology.rowUnit(line) : topology.columnUnit(line);
+    }
+
+    private int coverUnit(int line) {
+        return orientation == ROW ? topology.columnUnit(line) : topology.rowUnit(line);
+    }
+}
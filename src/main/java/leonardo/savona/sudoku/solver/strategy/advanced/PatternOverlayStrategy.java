@@ -0,0 +1,148 @@
+package leonardo.savona.sudoku.solver.strategy.advanced;
+
+import leonardo.savona.sudoku.model.BoxGeometry;
+import leonardo.savona.sudoku.model.CandidatePropagator;
+import leonardo.savona.sudoku.model.Candidates;
+import leonardo.savona.sudoku.model.Sudoku;
+import leonardo.savona.sudoku.model.Topology;
+import leonardo.savona.sudoku.solver.strategy.Strategy;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sovrapposizione di schemi: uno schema è una disposizione valida di un numero su tutta la griglia
+ * (una cella per riga, colonna e quadrato; 46.656 sul 9x9). Per ogni numero si tengono gli schemi
+ * compatibili con le celle che già lo contengono e con le celle in cui è ancora candidato:
+ * le celle fuori da tutti gli schemi perdono il candidato, quelle comuni a tutti ricevono il numero.
+ * Gli schemi sono bitboard precalcolati una volta per geometria; oltre {@link #MAX_SIZE} sarebbero troppi
+ * e la strategia non fa nulla.
+ */
+public class PatternOverlayStrategy extends Strategy {
+
+    public static final int MAX_SIZE = 9;
+
+    private static final Map<BoxGeometry, long[]> TEMPLATES = new ConcurrentHashMap<>();
+
+    public PatternOverlayStrategy(Sudoku sudoku) {
+        super(sudoku);
+    }
+
+    @Override
+    public void apply() {
+        int size = sudoku.getSize();
+        Topology topology = sudoku.getTopology();
+        if (size > MAX_SIZE || hasPendingCells(topology)) {
+            return;
+        }
+        int words = topology.getWordCount();
+        long[] templates = templatesFor(sudoku.getGeometry());
+        long[] placed = new long[words];
+        long[] allowed = new long[words];
+        long[] union = new long[words];
+        long[] intersection = new long[words];
+        CandidatePropagator propagator = sudoku.getPropagator();
+
+        for (int number = 1; number <= size; number++) {
+            Arrays.fill(placed, 0L);
+            for (int index = 0; index < topology.getCellCount(); index++) {
+                if (sudoku.getValueAt(index) == number) {
+                    placed[index >>> 6] |= 1L << index;
+                }
+            }
+            for (int w = 0; w < words; w++) {
+                allowed[w] = placed[w] | sudoku.getDigitBoard(number, w);
+            }
+            if (!overlay(templates, words, placed, allowed, union, intersection)) {
+                // nessuno schema compatibile: la griglia è in contraddizione, non si deduce nulla
+                continue;
+            }
+
+            for (int w = 0; w < words; w++) {
+                for (long m = allowed[w] & ~placed[w] & ~union[w]; m != 0; m &= m - 1) {
+                    propagator.eliminate(w * Long.SIZE + Long.numberOfTrailingZeros(m), Candidates.of(number));
+                }
+                for (long m = intersection[w] & ~placed[w]; m != 0; m &= m - 1) {
+                    int index = w * Long.SIZE + Long.numberOfTrailingZeros(m);
+                    if (sudoku.getValueAt(index) == 0) {
+                        propagator.place(index, number);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Unione e intersezione degli schemi che coprono tutte le celle {@code placed} e stanno dentro
+     * {@code allowed}; {@code false} se non ce n'è nessuno.
+     */
+    private static boolean overlay(long[] templates, int words, long[] placed, long[] allowed,
+                                   long[] union, long[] intersection) {
+        Arrays.fill(union, 0L);
+        Arrays.fill(intersection, -1L);
+        boolean any = false;
+        for (int t = 0; t < templates.length; t += words) {
+            boolean fits = true;
+            for (int w = 0; w < words && fits; w++) {
+                long template = templates[t + w];
+                fits = (template & placed[w]) == placed[w] && (template & ~allowed[w]) == 0;
+            }
+            if (fits) {
+                any = true;
+                for (int w = 0; w < words; w++) {
+                    union[w] |= templates[t + w];
+                    intersection[w] &= templates[t + w];
+                }
+            }
+        }
+        return any;
+    }
+
+    private boolean hasPendingCells(Topology topology) {
+        for (int row = 0; row < sudoku.getSize(); row++) {
+            if (sudoku.hasPendingCells(topology.rowUnit(row))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static long[] templatesFor(BoxGeometry geometry) {
+        return TEMPLATES.computeIfAbsent(geometry, PatternOverlayStrategy::buildTemplates);
+    }
+
+    /**
+     * Tutti gli schemi della geometria, {@link Topology#getWordCount()} long per schema.
+     */
+    private static long[] buildTemplates(BoxGeometry geometry) {
+        int words = Topology.of(geometry).getWordCount();
+        long[][] buffer = {new long[words * 1024]};
+        int[] count = {0};
+        place(geometry, 0, 0, 0, new long[words], buffer, count);
+        return Arrays.copyOf(buffer[0], count[0] * words);
+    }
+
+    private static void place(BoxGeometry geometry, int row, long usedColumns, long usedBoxes, long[] current,
+                              long[][] buffer, int[] count) {
+        int size = geometry.getSize();
+        int words = current.length;
+        if (row == size) {
+            if ((count[0] + 1) * words > buffer[0].length) {
+                buffer[0] = Arrays.copyOf(buffer[0], buffer[0].length * 2);
+            }
+            System.arraycopy(current, 0, buffer[0], count[0]++ * words, words);
+            return;
+        }
+        for (int column = 0; column < size; column++) {
+            int box = geometry.boxOf(row, column);
+            if ((usedColumns >>> column & 1) != 0 || (usedBoxes >>> box & 1) != 0) {
+                continue;
+            }
+            int index = row * size + column;
+            current[index >>> 6] |= 1L << index;
+            place(geometry, row + 1, usedColumns | 1L << column, usedBoxes | 1L << box, current, buffer, count);
+            current[index >>> 6] &= ~(1L << index);
+        }
+    }
+}
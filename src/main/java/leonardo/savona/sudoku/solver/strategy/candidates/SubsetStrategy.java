@@ -0,0 +1,154 @@
+package leonardo.savona.sudoku.solver.strategy.candidates;
+
+import leonardo.savona.sudoku.model.CandidatePropagator;
+import leonardo.savona.sudoku.model.Candidates;
+import leonardo.savona.sudoku.model.Sudoku;
+import leonardo.savona.sudoku.model.Topology;
+import leonardo.savona.sudoku.solver.strategy.Strategy;
+
+/**
+ * Gruppi chiusi di candidati in ogni unità (righe, colonne e quadrati), da 2 a {@link #MAX_SIZE}.
+ * <ul>
+ *     <li>nudi: n celle che insieme hanno solo n candidati; quei numeri spariscono dalle altre celle dell'unità;</li>
+ *     <li>nascosti: n numeri che nell'unità possono stare solo in n celle; quelle celle perdono gli altri candidati.</li>
+ * </ul>
+ * Le combinazioni si provano come unioni di maschere (candidati delle celle per i gruppi nudi, posizioni
+ * dei numeri per quelli nascosti), scartando un ramo appena l'unione supera la dimensione del gruppo.
+ * Le unità con celle dai candidati non ancora calcolati vengono saltate.
+ */
+public class SubsetStrategy extends Strategy {
+
+    public static final int MAX_SIZE = 4;
+
+    private final boolean hidden;
+    private final int maxSize;
+    private final Topology topology;
+
+    // unità corrente: maschere (candidati o posizioni) e a cosa si riferiscono (posizione o numero)
+    private final long[] masks;
+    private final int[] keys;
+    private int count;
+
+    private SubsetStrategy(Sudoku sudoku, boolean hidden, int maxSize) {
+        super(sudoku);
+        this.hidden = hidden;
+        this.maxSize = maxSize;
+        this.topology = sudoku.getTopology();
+        this.masks = new long[sudoku.getSize()];
+        this.keys = new int[sudoku.getSize()];
+    }
+
+    /**
+     * Coppie, tris e quartetti nudi.
+     */
+    public static SubsetStrategy naked(Sudoku sudoku) {
+        return new SubsetStrategy(sudoku, false, MAX_SIZE);
+    }
+
+    /**
+     * Coppie, tris e quartetti nascosti.
+     */
+    public static SubsetStrategy hidden(Sudoku sudoku) {
+        return new SubsetStrategy(sudoku, true, MAX_SIZE);
+    }
+
+    @Override
+    public void apply() {
+        for (int unit = 0; unit < topology.getUnitCount(); unit++) {
+            // dopo ogni eliminazione l'unità si ricarica: la propagazione può averla cambiata
+            while (!sudoku.hasPendingCells(unit) && applyToUnit(unit)) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean applyToUnit(int unit) {
+        if (!load(unit)) {
+            return false;
+        }
+        int limit = Math.min(maxSize, count - 1);
+        for (int size = 2; size <= limit; size++) {
+            if (search(unit, size, 0, 0, Candidates.NONE, 0L)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Carica l'unità; {@code false} se contiene un numero che non può stare da nessuna parte.
+     */
+    private boolean load(int unit) {
+        count = 0;
+        if (hidden) {
+            long missing = Candidates.all(sudoku.getSize()) & ~sudoku.getUnitMask(unit);
+            for (long m = missing; m != 0; m = Candidates.withoutLowest(m)) {
+                int number = Candidates.lowest(m);
+                long positions = sudoku.getUnitPositions(unit, number);
+                if (positions == 0) {
+                    return false;
+                }
+                masks[count] = positions;
+                keys[count++] = number;
+            }
+        } else {
+            int[] cells = topology.getUnit(unit);
+            for (int position = 0; position < cells.length; position++) {
+                if (sudoku.getValueAt(cells[position]) == 0) {
+                    masks[count] = sudoku.getCandidatesAt(cells[position]);
+                    keys[count++] = position;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Prova i gruppi di {@code size} elementi a partire da {@code start}; {@code chosen} sono gli indici
+     * già scelti e {@code union} l'unione delle loro maschere.
+     *
+     * @return {@code true} se un gruppo ha modificato la griglia
+     */
+    private boolean search(int unit, int size, int start, int depth, long union, long chosen) {
+        int remaining = size - depth - 1;
+        for (int i = start; i < count - remaining; i++) {
+            long extended = union | masks[i];
+            if (Long.bitCount(extended) > size) {
+                continue;
+            }
+            long withCurrent = chosen | 1L << i;
+            if (remaining > 0) {
+                if (search(unit, size, i + 1, depth + 1, extended, withCurrent)) {
+                    return true;
+                }
+            } else if (Long.bitCount(extended) == size && eliminate(unit, extended, withCurrent)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean eliminate(int unit, long union, long chosen) {
+        CandidatePropagator propagator = sudoku.getPropagator();
+        int[] cells = topology.getUnit(unit);
+        long before = sudoku.stateHash();
+        if (hidden) {
+            long numbers = Candidates.NONE;
+            for (long m = chosen; m != 0; m &= m - 1) {
+                numbers |= Candidates.of(keys[Long.numberOfTrailingZeros(m)]);
+            }
+            for (long m = union; m != 0; m &= m - 1) {
+                propagator.restrict(cells[Long.numberOfTrailingZeros(m)], numbers);
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                if ((chosen & 1L << i) == 0) {
+                    propagator.eliminate(cells[keys[i]], union);
+                }
+            }
+        }
+        return sudoku.stateHash() != before;
+    }
+}
@@ -1,88 +1,50 @@
 package leonardo.savona.sudoku.solver.strategy.cellbased;
 
+import leonardo.savona.sudoku.model.Candidates;
 import leonardo.savona.sudoku.model.Cell;
-import leonardo.savona.sudoku.model.Coordinate;
 import leonardo.savona.sudoku.model.Sudoku;
-import leonardo.savona.sudoku.util.SudokuUtils;
-
-import java.util.HashSet;
-import java.util.Set;
-import java.util.stream.Collectors;
+import leonardo.savona.sudoku.model.Topology;
 
 public class BasicStrategy extends CellBasedStrategy {
 
-    private final int[] sudokuNumbersToFind;
+    private final long sudokuNumbersToFind;
 
     public BasicStrategy(Sudoku sudoku) {
         super(sudoku);
-        this.sudokuNumbersToFind = new int[sudoku.getSize()];
-        for (int i = 0; i < sudoku.getSize(); i++) {
-            sudokuNumbersToFind[i] = i+1;
-        }
+        this.sudokuNumbersToFind = Candidates.all(sudoku.getSize());
     }
 
     @Override
     public void apply() {
         if (cell.isNumberFound()) {
-            SudokuUtils.clearOtherCellsPossibleValues(cell, sudoku);
-            return;
-        }
-
-        Set<Integer> rawMissingNumbers = getMissingNumbersFromRow(cell.getCoordinate().getRow());
-        if (cell.getPossibleValues().isEmpty())
-            cell.setPossibleValues(rawMissingNumbers);
-
-        cell.getPossibleValues().removeIf(n -> !rawMissingNumbers.contains(n));
-        if (cell.isNumberFound()) {
-            SudokuUtils.clearOtherCellsPossibleValues(cell, sudoku);
             return;
         }
 
-        Set<Integer> colMissingNumbers = getMissingNumbersFromColumn(cell.getCoordinate().getColumn());
-        cell.getPossibleValues().removeIf(n -> !colMissingNumbers.contains(n));
-        if (cell.isNumberFound()) {
-            SudokuUtils.clearOtherCellsPossibleValues(cell, sudoku);
-            return;
-        }
-
-        Set<Integer> squareMissingNumbers = getMissingNumbersFromSquare(cell);
-        cell.getPossibleValues().removeIf(n -> !squareMissingNumbers.contains(n));
-        if (cell.isNumberFound()) {
-            SudokuUtils.clearOtherCellsPossibleValues(cell, sudoku);
+        long missingNumbers = getMissingNumbersFromRow(cell.getCoordinate().getRow())
+                & getMissingNumbersFromColumn(cell.getCoordinate().getColumn())
+                & getMissingNumbersFromSquare(cell);
+        if (cell.getCandidates() == Candidates.NONE) {
+            cell.setCandidates(missingNumbers);
+            cell.isNumberFound();
+        } else {
+            sudoku.getPropagator().restrict(cell.getIndex(), missingNumbers);
         }
     }
 
-    private Set<Integer> getMissingNumbersFromSquare(Cell cell) {
-        Set<Integer> squareNumbers = new HashSet<>();
-        Set<Coordinate> coordinates = sudoku.getCoordinatesSquares().get(cell.getCoordinate());
-        for (Coordinate coordinate : coordinates) {
-            Cell cell1 = sudoku.getCellByCoordinate(coordinate);
-            if (cell1.getValue() != 0) squareNumbers.add(cell1.getValue());
-        }
-        return getMissingNumbersFromList(squareNumbers);
+    private long getMissingNumbersFromSquare(Cell cell) {
+        Topology topology = sudoku.getTopology();
+        return getMissingNumbersFromUnit(topology.boxUnit(topology.boxOf(cell.getIndex())));
     }
 
-    private Set<Integer> getMissingNumbersFromColumn(int column) {
-        Set<Integer> columnNumbers = sudoku.getSudoku().stream()
-                .filter(c -> c.getCoordinate().getColumn() == column && c.getValue() != 0)
-                .map(Cell::getValue)
-                .collect(Collectors.toSet());
-        return getMissingNumbersFromList(columnNumbers);
+    private long getMissingNumbersFromColumn(int column) {
+        return getMissingNumbersFromUnit(sudoku.getTopology().columnUnit(column));
     }
 
-    private Set<Integer> getMissingNumbersFromRow(int row) {
-        Set<Integer> rowNumbers = sudoku.getSudoku().stream()
-                .filter(c -> c.getCoordinate().getRow() == row && c.getValue() != 0)
-                .map(Cell::getValue)
-                .collect(Collectors.toSet());
-        return getMissingNumbersFromList(rowNumbers);
+    private long getMissingNumbersFromRow(int row) {
+        return getMissingNumbersFromUnit(sudoku.getTopology().rowUnit(row));
     }
 
-    private Set<Integer> getMissingNumbersFromList(Set<Integer> numbers) {
-        Set<Integer> result = new HashSet<>();
-        for (int i : sudokuNumbersToFind) {
-            if (!numbers.contains(i)) result.add(i);
-        }
-        return result;
+    private long getMissingNumbersFromUnit(int unit) {
+        return sudokuNumbersToFind & ~sudoku.getUnitMask(unit);
     }
 }
@@ -1,12 +1,9 @@
 package leonardo.savona.sudoku.solver.strategy.cellbased;
 
+import leonardo.savona.sudoku.model.Candidates;
 import leonardo.savona.sudoku.model.Cell;
 import leonardo.savona.sudoku.model.Sudoku;
-import leonardo.savona.sudoku.model.square.Square;
-import leonardo.savona.sudoku.util.SudokuUtils;
-
-import java.util.Set;
-import java.util.stream.Collectors;
+import leonardo.savona.sudoku.model.Topology;
 
 public class PossibleValuesStrategy extends CellBasedStrategy {
 
@@ -16,47 +13,38 @@ public class PossibleValuesStrategy extends CellBasedStrategy {
 
     @Override
     public void apply() {
-       for (int possibleValue : cell.getPossibleValues()) {
+        for (long m = cell.getCandidates(); m != 0; m = Candidates.withoutLowest(m)) {
+            int possibleValue = Candidates.lowest(m);
             if (!isPresentInOtherRowsPossibleValues(cell, possibleValue) ||
                     !isPresentInOtherColumnsPossibleValues(cell, possibleValue) ||
                     !isPresentInOtherSquaresPossibleValues(cell, possibleValue)) {
 
-                cell.clearPossibleValues();
-                cell.addPossibleValue(possibleValue);
-                if (cell.isNumberFound()) {
-                    SudokuUtils.clearOtherCellsPossibleValues(cell, sudoku);
-                }
+                sudoku.getPropagator().place(cell.getIndex(), possibleValue);
                 break;
             }
         }
     }
 
     private boolean isPresentInOtherSquaresPossibleValues(Cell cell, int possibleValue) {
-        Square square = SudokuUtils.getSquareFromCell(sudoku, cell);
-        return isPresentInCellsPossibleValues(square.getCells().stream()
-                        .filter(c -> !c.equals(cell)).collect(Collectors.toSet()),
-                possibleValue);
+        return isPresentInUnitPossibleValues(cell, 2, possibleValue);
     }
 
     private boolean isPresentInOtherRowsPossibleValues(Cell cell, int possibleValue) {
-        Set<Cell> cells = sudoku.getSudoku().stream()
-                .filter(c -> c.getCoordinate().getRow() == cell.getCoordinate().getRow() &&
-                        c.getCoordinate().getColumn() != cell.getCoordinate().getColumn())
-                .collect(Collectors.toSet());
-        return isPresentInCellsPossibleValues(cells, possibleValue);
+        return isPresentInUnitPossibleValues(cell, 0, possibleValue);
     }
 
     private boolean isPresentInOtherColumnsPossibleValues(Cell cell, int possibleValue) {
-        Set<Cell> cells = sudoku.getSudoku().stream()
-                .filter(c -> c.getCoordinate().getColumn() == cell.getCoordinate().getColumn() &&
-                        c.getCoordinate().getRow() != cell.getCoordinate().getRow())
-                .collect(Collectors.toSet());
-        return isPresentInCellsPossibleValues(cells, possibleValue);
+        return isPresentInUnitPossibleValues(cell, 1, possibleValue);
     }
 
-    private boolean isPresentInCellsPossibleValues(Set<Cell> cells, int possibleValue) {
-        return cells.stream()
-                .anyMatch(c -> c.getValue() == 0 &&
-                        (c.getPossibleValues().isEmpty() || c.getPossibleValues().contains(possibleValue)));
+    /**
+     * Le celle vuote senza candidati calcolati possono ancora ospitare qualunque numero.
+     */
+    private boolean isPresentInUnitPossibleValues(Cell cell, int j, int possibleValue) {
+        Topology topology = sudoku.getTopology();
+        int index = cell.getIndex();
+        int unit = topology.unitsOf(index)[j];
+        long others = sudoku.getUnitPositions(unit, possibleValue) & ~(1L << topology.positionInUnit(index, j));
+        return others != 0 || sudoku.hasPendingCells(unit);
     }
 }
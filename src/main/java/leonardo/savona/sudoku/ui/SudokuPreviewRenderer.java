@@ -1,6 +1,7 @@
 package leonardo.savona.sudoku.ui;
 
-import leonardo.savona.sudoku.model.Sudoku;
+import leonardo.savona.sudoku.model.BoardView;
+import leonardo.savona.sudoku.model.BoxGeometry;
 import leonardo.savona.sudoku.model.SudokuMetadata;
 
 import javax.swing.*;
@@ -48,10 +49,10 @@ public class SudokuPreviewRenderer extends JPanel implements ListCellRenderer<Su
     }
 
     static class MiniBoardPanel extends JPanel {
-        private final Sudoku board;
+        private final BoardView board;
         private final SudokuMetadata meta;
 
-        MiniBoardPanel(Sudoku board, SudokuMetadata meta) {
+        MiniBoardPanel(BoardView board, SudokuMetadata meta) {
             this.board = board;
             this.meta = meta;
             setPreferredSize(new Dimension(120, 120));
@@ -70,9 +71,11 @@ public class SudokuPreviewRenderer extends JPanel implements ListCellRenderer<Su
             int w = getWidth();
             int h = getHeight();
 
+            int n = board.getSize();
+            BoxGeometry geometry = board.getGeometry();
             int size = Math.min(w, h);
-            int cs = size / 9;
-            size = cs * 9; // 👈 niente sbordo
+            int cs = size / n;
+            size = cs * n; // 👈 niente sbordo
             int ox = (w - size) / 2;
             int oy = (h - size) / 2;
 
@@ -83,8 +86,8 @@ public class SudokuPreviewRenderer extends JPanel implements ListCellRenderer<Su
             g2.setColor(Color.BLACK);
             Font original = g2.getFont();
             g2.setFont(original.deriveFont(Font.BOLD, cs * 0.45f));
-            for (int r = 0; r < 9; r++) {
-                for (int c = 0; c < 9; c++) {
+            for (int r = 0; r < n; r++) {
+                for (int c = 0; c < n; c++) {
                     int v = board.getValue(r, c);
                     if (v != 0) {
                         String s = String.valueOf(v);
@@ -99,7 +102,7 @@ public class SudokuPreviewRenderer extends JPanel implements ListCellRenderer<Su
 
             // griglia fine
             g2.setColor(Color.LIGHT_GRAY);
-            for (int i = 0; i <= 9; i++) {
+            for (int i = 0; i <= n; i++) {
                 int p = i * cs;
                 g2.drawLine(ox, oy + p, ox + size, oy + p);
                 g2.drawLine(ox + p, oy, ox + p, oy + size);
@@ -107,9 +110,12 @@ public class SudokuPreviewRenderer extends JPanel implements ListCellRenderer<Su
             // griglia spessa
             g2.setStroke(new BasicStroke(2));
             g2.setColor(Color.BLACK);
-            for (int i = 0; i <= 9; i += 3) {
+            for (int i = 0; i <= n; i += geometry.getBoxRows()) {
                 int p = i * cs;
                 g2.drawLine(ox, oy + p, ox + size, oy + p);
+            }
+            for (int i = 0; i <= n; i += geometry.getBoxColumns()) {
+                int p = i * cs;
                 g2.drawLine(ox + p, oy, ox + p, oy + size);
             }
 
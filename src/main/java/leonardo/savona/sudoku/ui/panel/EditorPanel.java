@@ -4,6 +4,7 @@ import leonardo.savona.sudoku.model.Sudoku;
 import leonardo.savona.sudoku.model.SudokuMetadata;
 import leonardo.savona.sudoku.ocr.AssistedSudokuImporter;
 import leonardo.savona.sudoku.repository.FileSudokuRepository;
+import leonardo.savona.sudoku.solver.SolutionCounter;
 import leonardo.savona.sudoku.ui.AssistedImportDialog;
 import leonardo.savona.sudoku.ui.LoadingDialog;
 import leonardo.savona.sudoku.ui.SudokuPreviewRenderer;
@@ -36,6 +37,10 @@ public class EditorPanel extends JPanel {
     private final JList<SudokuTemplateEntry> previewList = new JList<>(listModel);
 
     private File currentFile = null;
+    // soluzioni della griglia corrente (fino a 2), -1 se non calcolate o ancora in calcolo
+    private int solutionCount = -1;
+    // conteggio in corso, cancellato alla modifica successiva
+    private SwingWorker<Integer, Void> countWorker;
 
     public EditorPanel() {
         this.board = new Sudoku();
@@ -65,7 +70,11 @@ public class EditorPanel extends JPanel {
 
         this.gridPanel = new SudokuGridPanel(board);
         this.gridPanel.setMode(SudokuGridPanel.Mode.EDITOR);
-        this.gridPanel.setOnChange(this::updateValidation);
+        this.gridPanel.setOnBoardChange(event -> {
+            if (event.hasValueChanges()) {
+                updateValidation();
+            }
+        });
 
         JPanel centerWrapper = new JPanel(new GridBagLayout());
         centerWrapper.add(gridPanel);
@@ -73,7 +82,7 @@ public class EditorPanel extends JPanel {
 
         // bottom bar
         JPanel bottom = new JPanel(new FlowLayout(FlowLayout.LEFT));
-        bottom.add(new JLabel("Editor: 1–9, 0/Canc per svuotare"));
+        bottom.add(new JLabel("Editor: 1–9 (oltre il 9 due cifre di seguito), 0/Canc per svuotare"));
 
         bottom.add(new JLabel("   Difficoltà:"));
         difficultyCombo = new JComboBox<>(new String[]{"Facile", "Medio", "Difficile", "Esperto"});
@@ -238,6 +247,14 @@ public class EditorPanel extends JPanel {
 
     private void saveTemplate() {
         if (!saveBtn.isEnabled()) return;
+        if (solutionCount == SolutionCounter.MULTIPLE) {
+            int res = JOptionPane.showConfirmDialog(this,
+                    "Il sudoku ha più di una soluzione. Salvarlo comunque?",
+                    "Soluzione non unica",
+                    JOptionPane.YES_NO_OPTION,
+                    JOptionPane.WARNING_MESSAGE);
+            if (res != JOptionPane.YES_OPTION) return;
+        }
 
         String hash = SudokuHash.hash(board);
         File newFile = new File(repo.getDirectory(), hash + ".txt");
@@ -281,12 +298,77 @@ public class EditorPanel extends JPanel {
     }
 
     private void updateValidation() {
+        if (countWorker != null) {
+            countWorker.cancel(true);
+            countWorker = null;
+        }
         boolean conflicts = SudokuUtils.hasConflicts(board);
         boolean any = SudokuUtils.hasAnyNumber(board);
-        saveBtn.setEnabled(!conflicts && any);
-        statusLabel.setText(conflicts ? "Sudoku NON valido" : (any ? "Sudoku valido" : "Vuoto"));
-        statusLabel.setForeground(conflicts ? new Color(180, 0, 0) : new Color(0, 120, 0));
-        repaint();
+        solutionCount = -1;
+        if (!conflicts && any && SolutionCounter.isInteractive(board)) {
+            // il conteggio può durare a lungo: si fa fuori dall'EDT e il salvataggio aspetta il risultato
+            startCount();
+            saveBtn.setEnabled(false);
+            showStatus("Verifica delle soluzioni...", Color.GRAY);
+            return;
+        }
+        showValidation(conflicts, any);
+    }
+
+    private void startCount() {
+        // la copia va fatta qui, dal thread che modifica la board
+        Sudoku snapshot = board.copy();
+        countWorker = new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() {
+                return SolutionCounter.countUpToTwo(snapshot);
+            }
+
+            @Override
+            protected void done() {
+                if (countWorker != this || isCancelled()) {
+                    return;
+                }
+                countWorker = null;
+                try {
+                    solutionCount = get();
+                } catch (Exception ex) {
+                    solutionCount = -1;
+                }
+                showValidation(false, true);
+            }
+        };
+        countWorker.execute();
+    }
+
+    private void showValidation(boolean conflicts, boolean any) {
+        boolean unsolvable = solutionCount == SolutionCounter.NONE;
+        saveBtn.setEnabled(!conflicts && any && !unsolvable);
+
+        String text;
+        Color color = new Color(0, 120, 0);
+        if (conflicts) {
+            text = "Sudoku NON valido";
+            color = new Color(180, 0, 0);
+        } else if (!any) {
+            text = "Vuoto";
+        } else if (unsolvable) {
+            text = "Sudoku senza soluzione";
+            color = new Color(180, 0, 0);
+        } else if (solutionCount == SolutionCounter.MULTIPLE) {
+            text = "Sudoku valido, più soluzioni";
+            color = new Color(190, 120, 0);
+        } else if (solutionCount == SolutionCounter.UNIQUE) {
+            text = "Sudoku valido, soluzione unica";
+        } else {
+            text = "Sudoku valido";
+        }
+        showStatus(text, color);
+    }
+
+    private void showStatus(String text, Color color) {
+        statusLabel.setText(text);
+        statusLabel.setForeground(color);
     }
 
     public void reloadTemplates() {
@@ -7,7 +7,6 @@ import leonardo.savona.sudoku.solver.SolverStep;
 import leonardo.savona.sudoku.solver.SudokuSolver;
 import leonardo.savona.sudoku.ui.SudokuPreviewRenderer;
 import leonardo.savona.sudoku.ui.SudokuTemplateEntry;
-import leonardo.savona.sudoku.util.SudokuModelConverter;
 
 import javax.swing.*;
 import java.awt.*;
@@ -145,8 +144,7 @@ public class SolutionPanel extends JPanel {
         if (index < 0 || index >= steps.size()) return;
 
         SolverStep step = steps.get(index);
-        Sudoku b = SudokuModelConverter.fromMatrix(step.getMatrix());
-        gridPanel.setBoard(b);
+        gridPanel.setView(step.getBoard());
         gridPanel.setInputEnabled(false);
         gridPanel.setInteractionEnabled(false);
 
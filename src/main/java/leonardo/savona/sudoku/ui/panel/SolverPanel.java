@@ -1,6 +1,8 @@
 package leonardo.savona.sudoku.ui.panel;
 
 import leonardo.savona.sudoku.model.Sudoku;
+import leonardo.savona.sudoku.model.SudokuChange;
+import leonardo.savona.sudoku.model.SudokuChangeEvent;
 import leonardo.savona.sudoku.model.SudokuMetadata;
 import leonardo.savona.sudoku.repository.FileSudokuRepository;
 import leonardo.savona.sudoku.ui.MainFrame;
@@ -10,6 +12,9 @@ import leonardo.savona.sudoku.util.SudokuUtils;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
@@ -30,8 +35,11 @@ public class SolverPanel extends JPanel {
     private final JButton startBtn = new JButton("Start");
     private final JButton pauseBtn = new JButton("Pausa");
     private final JToggleButton noteBtn = new JToggleButton("Note");  // 👈 solo "Note"
+    private final JButton undoBtn = new JButton("Annulla");
+    private final JButton redoBtn = new JButton("Ripeti");
 
-    private final JLabel[] numberLabels = new JLabel[Sudoku.DEFAULT_SIZE];
+    private final JPanel bottomNumbers = new JPanel();
+    private JLabel[] numberLabels = new JLabel[0];
 
     private Timer timer;
     private long startTimeMillis;
@@ -40,6 +48,10 @@ public class SolverPanel extends JPanel {
 
     private File currentFile = null;
 
+    // posizioni del registro della board dopo ogni mossa: la prima è lo stato di partenza
+    private final List<Integer> history = new ArrayList<>();
+    private int historyIndex = 0;
+
     public SolverPanel(MainFrame parent) {
         this.parent = parent;
         setLayout(new BorderLayout());
@@ -47,9 +59,10 @@ public class SolverPanel extends JPanel {
         gridPanel.setMode(SudokuGridPanel.Mode.SOLVER);
         gridPanel.setInputEnabled(false); // sudoku disattivato finché non premi start
         gridPanel.setOnChange(() -> {
+            recordMove();
             handleBoardChange();
-            updateNumberBar();
         });
+        gridPanel.setOnBoardChange(this::updateNumberBar);
 
         // SINISTRA: lista anteprime
         previewList.setCellRenderer(new SudokuPreviewRenderer());
@@ -76,8 +89,8 @@ public class SolverPanel extends JPanel {
 
         // controlli sopra
         JPanel topControls = new JPanel(new FlowLayout(FlowLayout.CENTER, 12, 5));
-        topControls.setMaximumSize(new Dimension(540, 40));
-        topControls.setPreferredSize(new Dimension(540, 40));
+        topControls.setMaximumSize(new Dimension(640, 40));
+        topControls.setPreferredSize(new Dimension(640, 40));
 
         timerLabel.setFont(timerLabel.getFont().deriveFont(Font.BOLD, 16f));
         topControls.add(new JLabel("Tempo:"));
@@ -99,6 +112,22 @@ public class SolverPanel extends JPanel {
         });
         topControls.add(noteBtn);
 
+        undoBtn.addActionListener(e -> undo());
+        redoBtn.addActionListener(e -> redo());
+        topControls.add(undoBtn);
+        topControls.add(redoBtn);
+
+        InputMap im = getInputMap(WHEN_ANCESTOR_OF_FOCUSED_COMPONENT);
+        ActionMap am = getActionMap();
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_Z, InputEvent.CTRL_DOWN_MASK), "UNDO");
+        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_Y, InputEvent.CTRL_DOWN_MASK), "REDO");
+        am.put("UNDO", new AbstractAction() {
+            @Override public void actionPerformed(ActionEvent e) { undo(); }
+        });
+        am.put("REDO", new AbstractAction() {
+            @Override public void actionPerformed(ActionEvent e) { redo(); }
+        });
+
         column.add(topControls);
 
         // griglia
@@ -106,18 +135,11 @@ public class SolverPanel extends JPanel {
         column.add(gridPanel);
 
         // numeri sotto
-        JPanel bottomNumbers = new JPanel();
-        bottomNumbers.setLayout(new GridLayout(1, 9, 8, 0));
         bottomNumbers.setMaximumSize(new Dimension(540, 55));
         bottomNumbers.setPreferredSize(new Dimension(540, 55));
         bottomNumbers.setBorder(BorderFactory.createEmptyBorder(10, 0, 0, 0));
 
-        for (int i = 0; i < Sudoku.DEFAULT_SIZE; i++) {
-            JLabel lab = new JLabel(String.valueOf(i + 1), SwingConstants.CENTER);
-            lab.setFont(lab.getFont().deriveFont(Font.BOLD, 24f));
-            numberLabels[i] = lab;
-            bottomNumbers.add(lab);
-        }
+        rebuildNumberBar();
         column.add(bottomNumbers);
 
         centerWrapper.add(column);
@@ -125,27 +147,102 @@ public class SolverPanel extends JPanel {
 
         // timer swing
         timer = new Timer(1000, e -> updateTimer());
+        resetHistory();
+    }
+
+    // una etichetta per numero: cambia solo se cambia la dimensione della griglia
+    private void rebuildNumberBar() {
+        int size = board.getSize();
+        if (numberLabels.length == size) {
+            return;
+        }
+        bottomNumbers.removeAll();
+        bottomNumbers.setLayout(new GridLayout(1, size, 8, 0));
+        numberLabels = new JLabel[size];
+        float fontSize = size > 16 ? 11f : size > 9 ? 18f : 24f;
+        for (int i = 0; i < size; i++) {
+            JLabel lab = new JLabel(String.valueOf(i + 1), SwingConstants.CENTER);
+            lab.setFont(lab.getFont().deriveFont(Font.BOLD, fontSize));
+            numberLabels[i] = lab;
+            bottomNumbers.add(lab);
+        }
+        bottomNumbers.revalidate();
     }
 
     // aggiorna colori dei numeri sotto
     private void updateNumberBar() {
-        int[] counts = new int[Sudoku.DEFAULT_SIZE + 1];
-        for (int r = 0; r < Sudoku.DEFAULT_SIZE; r++) {
-            for (int c = 0; c < Sudoku.DEFAULT_SIZE; c++) {
-                int v = board.getValue(r, c);
-                if (v >= 1 && v <= Sudoku.DEFAULT_SIZE) counts[v]++;
-            }
+        rebuildNumberBar();
+        for (int i = 1; i <= board.getSize(); i++) {
+            updateNumberLabel(i);
         }
-        for (int i = 1; i <= Sudoku.DEFAULT_SIZE; i++) {
-            JLabel lab = numberLabels[i - 1];
-            if (counts[i] >= Sudoku.DEFAULT_SIZE) {
-                lab.setForeground(Color.LIGHT_GRAY);
-            } else {
-                lab.setForeground(Color.BLACK);
+    }
+
+    // solo i numeri toccati dalle modifiche
+    private void updateNumberBar(SudokuChangeEvent event) {
+        for (SudokuChange change : event.getChanges()) {
+            if (change.getKind() == SudokuChange.Kind.VALUE) {
+                updateNumberLabel((int) change.getBefore());
+                updateNumberLabel((int) change.getAfter());
             }
         }
     }
 
+    private void updateNumberLabel(int number) {
+        if (number < 1 || number > numberLabels.length) {
+            return;
+        }
+        JLabel lab = numberLabels[number - 1];
+        if (board.getNumberCount(number) >= board.getSize()) {
+            lab.setForeground(Color.LIGHT_GRAY);
+        } else {
+            lab.setForeground(Color.BLACK);
+        }
+    }
+
+    private void resetHistory() {
+        history.clear();
+        history.add(board.mark());
+        historyIndex = 0;
+        updateUndoButtons();
+    }
+
+    private void recordMove() {
+        int position = board.mark();
+        if (position == history.get(historyIndex)) {
+            return; // la mossa non ha cambiato nulla
+        }
+        history.subList(historyIndex + 1, history.size()).clear();
+        history.add(position);
+        historyIndex++;
+        updateUndoButtons();
+    }
+
+    private void undo() {
+        if (state != SolveState.RUNNING || historyIndex == 0) return;
+        historyIndex--;
+        board.undoTo(history.get(historyIndex));
+        afterHistoryMove();
+    }
+
+    private void redo() {
+        if (state != SolveState.RUNNING || historyIndex >= history.size() - 1) return;
+        historyIndex++;
+        board.redoTo(history.get(historyIndex));
+        afterHistoryMove();
+    }
+
+    private void afterHistoryMove() {
+        // griglia e barra dei numeri si aggiornano con gli eventi della board
+        updateUndoButtons();
+        handleBoardChange();
+    }
+
+    private void updateUndoButtons() {
+        boolean running = state == SolveState.RUNNING;
+        undoBtn.setEnabled(running && historyIndex > 0);
+        redoBtn.setEnabled(running && historyIndex < history.size() - 1);
+    }
+
     private void resetSelectionToCurrent() {
         if (currentFile == null) return;
         for (int i = 0; i < listModel.size(); i++) {
@@ -173,13 +270,14 @@ public class SolverPanel extends JPanel {
         noteBtn.setBackground(null);
         gridPanel.setNoteMode(false);
         gridPanel.setInputEnabled(false); // appena aperto: disattivato
+        resetHistory();
         updateNumberBar();
     }
 
     private Sudoku cloneBoard(Sudoku src) {
-        Sudoku copy = new Sudoku();
-        for (int r = 0; r < Sudoku.DEFAULT_SIZE; r++) {
-            for (int c = 0; c < Sudoku.DEFAULT_SIZE; c++) {
+        Sudoku copy = new Sudoku(src.getGeometry());
+        for (int r = 0; r < src.getSize(); r++) {
+            for (int c = 0; c < src.getSize(); c++) {
                 int v = src.getValue(r, c);
                 if (v != 0) {
                     copy.setValue(r, c, v, true);
@@ -200,6 +298,7 @@ public class SolverPanel extends JPanel {
         startBtn.setEnabled(false);
         pauseBtn.setEnabled(true);
         gridPanel.setInputEnabled(true);   // ora puoi scrivere
+        updateUndoButtons();
     }
 
     private void togglePause() {
@@ -210,12 +309,14 @@ public class SolverPanel extends JPanel {
             state = SolveState.PAUSED;
             pauseBtn.setText("Riprendi");
             gridPanel.setInputEnabled(false);
+            updateUndoButtons();
         } else if (state == SolveState.PAUSED) {
             startTimeMillis = System.currentTimeMillis();
             timer.start();
             state = SolveState.RUNNING;
             pauseBtn.setText("Pausa");
             gridPanel.setInputEnabled(true);
+            updateUndoButtons();
         }
     }
 
@@ -269,6 +370,7 @@ public class SolverPanel extends JPanel {
         noteBtn.setSelected(false);
         noteBtn.setBackground(null);
         gridPanel.setNoteMode(false);
+        updateUndoButtons();
 
         reloadTemplates();
         resetSelectionToCurrent();
@@ -298,6 +400,7 @@ public class SolverPanel extends JPanel {
         } else {
             this.board = new Sudoku();
             this.gridPanel.setBoard(this.board);
+            resetHistory();
             updateNumberBar();
         }
     }
@@ -315,6 +418,7 @@ public class SolverPanel extends JPanel {
         noteBtn.setSelected(false);
         noteBtn.setBackground(null);
         gridPanel.setNoteMode(false);
+        resetHistory();
         updateNumberBar();
     }
 }
@@ -1,7 +1,11 @@
 package leonardo.savona.sudoku.ui.panel;
 
-import leonardo.savona.sudoku.model.NoteSet;
+import leonardo.savona.sudoku.model.BoardView;
+import leonardo.savona.sudoku.model.BoxGeometry;
 import leonardo.savona.sudoku.model.Sudoku;
+import leonardo.savona.sudoku.model.SudokuChange;
+import leonardo.savona.sudoku.model.SudokuChangeEvent;
+import leonardo.savona.sudoku.model.SudokuListener;
 
 import javax.swing.*;
 import java.awt.*;
@@ -12,7 +16,8 @@ public class SudokuGridPanel extends JPanel {
     public enum Mode { EDITOR, SOLVER }
 
     private static final int GRID_PIXELS = 540;
-    private Sudoku board;
+    private Sudoku board;        // null quando si mostra solo una vista in lettura
+    private BoardView view;
 
     private int selectedRow = 0;
     private int selectedCol = 0;
@@ -21,11 +26,20 @@ public class SudokuGridPanel extends JPanel {
     private boolean interactionEnabled = true; // se false ignoro selezioni e movimenti
     private Mode mode = Mode.SOLVER;
     private Runnable onChange = null;
+    private SudokuListener onBoardChange = null;
+    private final SudokuListener boardListener = this::boardChanged;
 
     // 👇 nuovo: celle OCR a bassa confidenza
     private boolean[][] lowConfidence = new boolean[Sudoku.DEFAULT_SIZE][Sudoku.DEFAULT_SIZE];
     private Highlight highlight = null;
 
+    // sulle griglie oltre il 9 due cifre battute di seguito sulla stessa cella formano un numero (1, 2 → 12)
+    private static final long TWO_DIGIT_WINDOW_MS = 1000;
+    private int pendingDigit = 0;
+    private long pendingAt;
+    private int pendingRow = -1;
+    private int pendingCol = -1;
+
     public static class Highlight {
         private final int row;
         private final int column;
@@ -46,6 +60,11 @@ public class SudokuGridPanel extends JPanel {
 
     public SudokuGridPanel(Sudoku board) {
         this.board = board;
+        this.view = board;
+        if (board != null) {
+            board.addListener(boardListener);
+        }
+        this.lowConfidence = new boolean[getGridSize()][getGridSize()];
         setFocusable(true);
         setBackground(Color.WHITE);
 
@@ -57,11 +76,12 @@ public class SudokuGridPanel extends JPanel {
                 }
                 requestFocusInWindow();
                 int cellSize = getCellSize();
-                int originX = (getWidth() - GRID_PIXELS) / 2;
-                int originY = (getHeight() - GRID_PIXELS) / 2;
+                int extent = cellSize * getGridSize();
+                int originX = (getWidth() - extent) / 2;
+                int originY = (getHeight() - extent) / 2;
                 int x = e.getX() - originX;
                 int y = e.getY() - originY;
-                if (x >= 0 && y >= 0 && x < GRID_PIXELS && y < GRID_PIXELS) {
+                if (x >= 0 && y >= 0 && x < extent && y < extent) {
                     selectedCol = x / cellSize;
                     selectedRow = y / cellSize;
                     repaint();
@@ -73,40 +93,28 @@ public class SudokuGridPanel extends JPanel {
         InputMap im = getInputMap(WHEN_FOCUSED);
         ActionMap am = getActionMap();
 
-        // tasti 1-9 (riga superiore)
-        for (int k = KeyEvent.VK_1; k <= KeyEvent.VK_9; k++) {
-            int num = k - KeyEvent.VK_0;
-            String name = "NUM_" + num;
-            im.put(KeyStroke.getKeyStroke(k, 0), name);
-            am.put(name, new AbstractAction() {
-                @Override public void actionPerformed(ActionEvent e) {
-                    if (!interactionEnabled) return;
-                    applyNumber(num);
-                    fireChange();
-                }
-            });
-        }
-        // tastierino numerico 1-9
-        for (int k = KeyEvent.VK_NUMPAD1; k <= KeyEvent.VK_NUMPAD9; k++) {
-            int num = k - KeyEvent.VK_NUMPAD0;
-            String name = "NUMPAD_" + num;
-            im.put(KeyStroke.getKeyStroke(k, 0), name);
+        // cifre 0-9 (riga superiore e tastierino): lo 0 da solo svuota la cella
+        for (int d = 0; d <= 9; d++) {
+            int digit = d;
+            String name = "DIGIT_" + digit;
+            im.put(KeyStroke.getKeyStroke(KeyEvent.VK_0 + digit, 0), name);
+            im.put(KeyStroke.getKeyStroke(KeyEvent.VK_NUMPAD0 + digit, 0), name);
             am.put(name, new AbstractAction() {
                 @Override public void actionPerformed(ActionEvent e) {
                     if (!interactionEnabled) return;
-                    applyNumber(num);
+                    typeDigit(digit);
                     fireChange();
                 }
             });
         }
 
-        // clear (0 / CANC / BACKSPACE)
-        im.put(KeyStroke.getKeyStroke(KeyEvent.VK_0, 0), "CLEAR");
+        // clear (CANC / BACKSPACE)
         im.put(KeyStroke.getKeyStroke(KeyEvent.VK_DELETE, 0), "CLEAR");
         im.put(KeyStroke.getKeyStroke(KeyEvent.VK_BACK_SPACE, 0), "CLEAR");
         am.put("CLEAR", new AbstractAction() {
             @Override public void actionPerformed(ActionEvent e) {
                 if (!interactionEnabled) return;
+                pendingDigit = 0;
                 applyNumber(0);
                 fireChange();
             }
@@ -114,9 +122,9 @@ public class SudokuGridPanel extends JPanel {
 
         // frecce
         bindArrow(im, am, KeyEvent.VK_UP,    () -> { if (selectedRow > 0) selectedRow--; repaint(); });
-        bindArrow(im, am, KeyEvent.VK_DOWN,  () -> { if (selectedRow < 8) selectedRow++; repaint(); });
+        bindArrow(im, am, KeyEvent.VK_DOWN,  () -> { if (selectedRow < getGridSize() - 1) selectedRow++; repaint(); });
         bindArrow(im, am, KeyEvent.VK_LEFT,  () -> { if (selectedCol > 0) selectedCol--; repaint(); });
-        bindArrow(im, am, KeyEvent.VK_RIGHT, () -> { if (selectedCol < 8) selectedCol++; repaint(); });
+        bindArrow(im, am, KeyEvent.VK_RIGHT, () -> { if (selectedCol < getGridSize() - 1) selectedCol++; repaint(); });
 
         // toggle note (tasto N)
         im.put(KeyStroke.getKeyStroke(KeyEvent.VK_N, 0), "TOGGLE_NOTE");
@@ -140,6 +148,11 @@ public class SudokuGridPanel extends JPanel {
     }
 
     public void setOnChange(Runnable r) { this.onChange = r; }
+
+    /**
+     * Riceve le modifiche della board mostrata, qualunque sia la loro origine (tastiera, annulla...).
+     */
+    public void setOnBoardChange(SudokuListener l) { this.onBoardChange = l; }
     private void fireChange() { if (onChange != null) onChange.run(); }
 
     public void setMode(Mode mode) { this.mode = mode; }
@@ -162,11 +175,30 @@ public class SudokuGridPanel extends JPanel {
     }
 
     public void setBoard(Sudoku board) {
+        show(board, board);
+    }
+
+    /**
+     * Mostra una griglia in sola lettura: l'inserimento di numeri è ignorato finché
+     * non si torna a una board con {@link #setBoard(Sudoku)}.
+     */
+    public void setView(BoardView view) {
+        show(null, view);
+    }
+
+    private void show(Sudoku board, BoardView view) {
+        if (this.board != null) {
+            this.board.removeListener(boardListener);
+        }
         this.board = board;
+        if (board != null) {
+            board.addListener(boardListener);
+        }
+        this.view = view;
         this.selectedRow = 0;
         this.selectedCol = 0;
         // quando cambio board azzero anche le lowConfidence
-        this.lowConfidence = new boolean[Sudoku.DEFAULT_SIZE][Sudoku.DEFAULT_SIZE];
+        this.lowConfidence = new boolean[getGridSize()][getGridSize()];
         this.highlight = null;
         repaint();
     }
@@ -180,10 +212,11 @@ public class SudokuGridPanel extends JPanel {
 
     // 👇 nuovo: arriva dall'EditorPanel dopo l'import da immagine
     public void setLowConfidence(boolean[][] marks) {
-        if (marks != null && marks.length == Sudoku.DEFAULT_SIZE && marks[0].length == Sudoku.DEFAULT_SIZE) {
+        int size = getGridSize();
+        if (marks != null && marks.length == size && marks[0].length == size) {
             this.lowConfidence = marks;
         } else {
-            this.lowConfidence = new boolean[Sudoku.DEFAULT_SIZE][Sudoku.DEFAULT_SIZE];
+            this.lowConfidence = new boolean[size][size];
         }
         repaint();
     }
@@ -193,6 +226,25 @@ public class SudokuGridPanel extends JPanel {
         repaint();
     }
 
+    private void typeDigit(int digit) {
+        long now = System.currentTimeMillis();
+        int combined = pendingDigit * 10 + digit;
+        if (pendingDigit != 0 && now - pendingAt <= TWO_DIGIT_WINDOW_MS && combined <= getGridSize()
+                && pendingRow == selectedRow && pendingCol == selectedCol) {
+            if (noteMode && mode == Mode.SOLVER) {
+                applyNumber(pendingDigit); // la prima cifra era già stata messa come nota: la tolgo
+            }
+            applyNumber(combined);
+            pendingDigit = 0;
+            return;
+        }
+        applyNumber(digit);
+        pendingDigit = digit != 0 && digit * 10 <= getGridSize() ? digit : 0;
+        pendingAt = now;
+        pendingRow = selectedRow;
+        pendingCol = selectedCol;
+    }
+
     public void applyNumber(int number) {
         if (!interactionEnabled) return;
         if (!inputEnabled) return;           // 👈 blocco inserimenti se disattivato
@@ -201,8 +253,8 @@ public class SudokuGridPanel extends JPanel {
         if (r < 0 || c < 0) return;
 
         if (noteMode && mode == Mode.SOLVER) {
-            if (number >= 1 && number <= 9) board.toggleNote(r, c, number);
-        } else {
+            if (number >= 1 && number <= board.getSize()) board.toggleNote(r, c, number);
+        } else if (number <= board.getSize()) {
             if (number == 0) {
                 board.setValue(r, c, 0, false);
             } else {
@@ -210,10 +262,58 @@ public class SudokuGridPanel extends JPanel {
                 else board.setValue(r, c, number);
             }
         }
-        repaint();
     }
 
-    private int getCellSize() { return GRID_PIXELS / Sudoku.DEFAULT_SIZE; }
+    // ridisegna solo le zone toccate dalle modifiche
+    private void boardChanged(SudokuChangeEvent event) {
+        if (onBoardChange != null) {
+            onBoardChange.sudokuChanged(event);
+        }
+        boolean sameValueHighlight = mode == Mode.SOLVER && interactionEnabled && selectedRow >= 0 && selectedCol >= 0;
+        for (SudokuChange change : event.getChanges()) {
+            switch (change.getKind()) {
+                case VALUE:
+                    if (sameValueHighlight) {
+                        // cambiano le celle evidenziate con lo stesso numero: serve tutta la griglia
+                        repaint();
+                        return;
+                    }
+                    // i conflitti possono cambiare in tutta la riga, la colonna e il quadrato
+                    repaintUnits(change.getRow(), change.getColumn());
+                    break;
+                case NOTES:
+                case FIXED:
+                    repaintCells(change.getRow(), change.getColumn(), 1, 1);
+                    break;
+                default:
+                    break; // i candidati del risolutore non vengono disegnati
+            }
+        }
+    }
+
+    private void repaintUnits(int row, int column) {
+        BoxGeometry geometry = view.getGeometry();
+        int size = view.getSize();
+        repaintCells(row, 0, 1, size);
+        repaintCells(0, column, size, 1);
+        repaintCells((row / geometry.getBoxRows()) * geometry.getBoxRows(),
+                (column / geometry.getBoxColumns()) * geometry.getBoxColumns(),
+                geometry.getBoxRows(), geometry.getBoxColumns());
+    }
+
+    private void repaintCells(int row, int column, int rows, int columns) {
+        int cellSize = getCellSize();
+        int extent = cellSize * getGridSize();
+        int originX = (getWidth() - extent) / 2;
+        int originY = (getHeight() - extent) / 2;
+        // margine per le linee spesse sul bordo
+        repaint(originX + column * cellSize - 2, originY + row * cellSize - 2,
+                columns * cellSize + 4, rows * cellSize + 4);
+    }
+
+    private int getGridSize() { return view == null ? Sudoku.DEFAULT_SIZE : view.getSize(); }
+
+    private int getCellSize() { return GRID_PIXELS / getGridSize(); }
 
     @Override public Dimension getPreferredSize() { return new Dimension(GRID_PIXELS, GRID_PIXELS); }
     @Override public Dimension getMinimumSize()   { return getPreferredSize(); }
@@ -222,20 +322,25 @@ public class SudokuGridPanel extends JPanel {
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        if (board == null) return;
+        if (view == null) return;
 
         Graphics2D g2 = (Graphics2D) g.create();
+        int size = view.getSize();
+        BoxGeometry geometry = view.getGeometry();
+        int boxRows = geometry.getBoxRows();
+        int boxCols = geometry.getBoxColumns();
         int cellSize = getCellSize();
-        int originX = (getWidth() - GRID_PIXELS) / 2;
-        int originY = (getHeight() - GRID_PIXELS) / 2;
+        int extent = cellSize * size;
+        int originX = (getWidth() - extent) / 2;
+        int originY = (getHeight() - extent) / 2;
 
         boolean hasSel = interactionEnabled && selectedRow >= 0 && selectedCol >= 0;
-        int selVal = hasSel ? board.getValue(selectedRow, selectedCol) : 0;
-        int selBoxRow = (selectedRow / 3) * 3;
-        int selBoxCol = (selectedCol / 3) * 3;
+        int selVal = hasSel ? view.getValue(selectedRow, selectedCol) : 0;
+        int selBoxRow = (selectedRow / boxRows) * boxRows;
+        int selBoxCol = (selectedCol / boxCols) * boxCols;
 
-        for (int r = 0; r < Sudoku.DEFAULT_SIZE; r++) {
-            for (int c = 0; c < Sudoku.DEFAULT_SIZE; c++) {
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
                 int x = originX + c * cellSize;
                 int y = originY + r * cellSize;
 
@@ -249,12 +354,12 @@ public class SudokuGridPanel extends JPanel {
                 if (mode == Mode.SOLVER && hasSel) {
                     boolean sameRow = (r == selectedRow);
                     boolean sameCol = (c == selectedCol);
-                    boolean sameBox = (r >= selBoxRow && r < selBoxRow + 3 &&
-                            c >= selBoxCol && c < selBoxCol + 3);
+                    boolean sameBox = (r >= selBoxRow && r < selBoxRow + boxRows &&
+                            c >= selBoxCol && c < selBoxCol + boxCols);
                     if (sameRow || sameCol || sameBox) {
                         bg = new Color(235, 243, 255);
                     }
-                    int v = board.getValue(r, c);
+                    int v = view.getValue(r, c);
                     if (selVal != 0 && v == selVal) {
                         bg = new Color(210, 230, 255);
                     }
@@ -275,40 +380,41 @@ public class SudokuGridPanel extends JPanel {
                 }
 
                 // conflitto
-                if (board.isCellInConflict(r, c)) {
+                if (view.isCellInConflict(r, c)) {
                     g2.setColor(new Color(255, 200, 200, 160));
                     g2.fillRect(x, y, cellSize, cellSize);
                 }
 
-                int value = board.getValue(r, c);
+                int value = view.getValue(r, c);
                 if (value != 0) {
-                    g2.setColor(board.isFixed(r, c) ? Color.BLACK : Color.BLUE.darker());
+                    g2.setColor(view.isFixed(r, c) ? Color.BLACK : Color.BLUE.darker());
                     Font old = g2.getFont();
-                    g2.setFont(old.deriveFont(Font.BOLD, cellSize * 0.55f));
-                    FontMetrics fm = g2.getFontMetrics();
                     String s = String.valueOf(value);
+                    g2.setFont(old.deriveFont(Font.BOLD, cellSize * (s.length() > 1 ? 0.42f : 0.55f)));
+                    FontMetrics fm = g2.getFontMetrics();
                     int tx = x + (cellSize - fm.stringWidth(s)) / 2;
                     int ty = y + (cellSize - fm.getHeight()) / 2 + fm.getAscent();
                     g2.drawString(s, tx, ty);
                     g2.setFont(old);
                 } else {
-                    NoteSet ns = board.getNotes(r, c);
-                    if (!ns.isEmpty()) {
+                    if (view.hasNotes(r, c)) {
                         g2.setColor(Color.GRAY);
                         Font old = g2.getFont();
                         g2.setFont(old.deriveFont(Font.PLAIN, cellSize * 0.20f));
                         FontMetrics fm = g2.getFontMetrics();
-                        int small = cellSize / 3;
-                        for (int num = 1; num <= 9; num++) {
-                            if (ns.hasNote(num)) {
+                        // le note sono disposte come le celle di un quadrato
+                        int smallW = cellSize / boxCols;
+                        int smallH = cellSize / boxRows;
+                        for (int num = 1; num <= size; num++) {
+                            if (view.hasNote(r, c, num)) {
                                 int idx = num - 1;
-                                int subRow = idx / 3;
-                                int subCol = idx % 3;
-                                int sx = x + subCol * small;
-                                int sy = y + subRow * small;
+                                int subRow = idx / boxCols;
+                                int subCol = idx % boxCols;
+                                int sx = x + subCol * smallW;
+                                int sy = y + subRow * smallH;
                                 String s = String.valueOf(num);
-                                int tx = sx + (small - fm.stringWidth(s)) / 2;
-                                int ty = sy + (small - fm.getHeight()) / 2 + fm.getAscent();
+                                int tx = sx + (smallW - fm.stringWidth(s)) / 2;
+                                int ty = sy + (smallH - fm.getHeight()) / 2 + fm.getAscent();
                                 g2.drawString(s, tx, ty);
                             }
                         }
@@ -320,25 +426,28 @@ public class SudokuGridPanel extends JPanel {
 
         // griglia sottile
         g2.setColor(Color.LIGHT_GRAY);
-        for (int i = 0; i <= Sudoku.DEFAULT_SIZE; i++) {
+        for (int i = 0; i <= size; i++) {
             int pos = i * cellSize;
-            g2.drawLine(originX, originY + pos, originX + GRID_PIXELS, originY + pos);
-            g2.drawLine(originX + pos, originY, originX + pos, originY + GRID_PIXELS);
+            g2.drawLine(originX, originY + pos, originX + extent, originY + pos);
+            g2.drawLine(originX + pos, originY, originX + pos, originY + extent);
         }
 
         // griglia spessa
         g2.setStroke(new BasicStroke(3));
         g2.setColor(Color.BLACK);
-        for (int i = 0; i <= Sudoku.DEFAULT_SIZE; i += 3) {
+        for (int i = 0; i <= size; i += boxRows) {
+            int pos = i * cellSize;
+            g2.drawLine(originX, originY + pos, originX + extent, originY + pos);
+        }
+        for (int i = 0; i <= size; i += boxCols) {
             int pos = i * cellSize;
-            g2.drawLine(originX, originY + pos, originX + GRID_PIXELS, originY + pos);
-            g2.drawLine(originX + pos, originY, originX + pos, originY + GRID_PIXELS);
+            g2.drawLine(originX + pos, originY, originX + pos, originY + extent);
         }
 
         // overlay disattivato
         if (!inputEnabled) {
             g2.setColor(new Color(255, 255, 255, 60));
-            g2.fillRect(originX, originY, GRID_PIXELS, GRID_PIXELS);
+            g2.fillRect(originX, originY, extent, extent);
         }
 
         g2.dispose();
@@ -1,20 +1,38 @@
 package leonardo.savona.sudoku.util;
 
-import leonardo.savona.sudoku.model.Sudoku;
+import leonardo.savona.sudoku.model.BoardView;
+import leonardo.savona.sudoku.model.BoxGeometry;
 
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
 public final class SudokuHash {
 
+    private static final BoxGeometry CLASSIC = BoxGeometry.of(3, 3);
+
     private SudokuHash() {}
 
-    public static String hash(Sudoku board) {
-        // stringa tipo "000000000000003085..." (81 caratteri)
-        StringBuilder sb = new StringBuilder(board.getSize() * board.getSize());
-        for (int r = 0; r < board.getSize(); r++) {
-            for (int c = 0; c < board.getSize(); c++) {
-                sb.append(board.getValue(r, c));
+    /**
+     * Hash della griglia, usato anche come nome del file salvato. Il 9x9 classico mantiene la codifica
+     * storica ("000000000000003085...", 81 cifre), così i file già salvati conservano il nome; le altre
+     * geometrie includono le dimensioni del quadrato e scrivono ogni valore su due cifre, perché con
+     * numeri oltre il 9 la semplice concatenazione è ambigua ("1" "12" e "11" "2").
+     */
+    public static String hash(BoardView board) {
+        BoxGeometry geometry = board.getGeometry();
+        boolean classic = geometry.equals(CLASSIC);
+        int size = board.getSize();
+        StringBuilder sb = new StringBuilder(size * size * 2 + 8);
+        if (!classic) {
+            sb.append(geometry.getBoxRows()).append('x').append(geometry.getBoxColumns()).append(':');
+        }
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                int value = board.getValue(r, c);
+                if (!classic && value < 10) {
+                    sb.append('0');
+                }
+                sb.append(value);
             }
         }
         return md5(sb.toString());
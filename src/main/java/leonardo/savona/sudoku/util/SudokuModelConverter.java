@@ -1,7 +1,5 @@
 package leonardo.savona.sudoku.util;
 
-import leonardo.savona.sudoku.model.Cell;
-import leonardo.savona.sudoku.model.Coordinate;
 import leonardo.savona.sudoku.model.Sudoku;
 
 /**
@@ -12,10 +10,10 @@ public class SudokuModelConverter {
     public static int[][] toMatrix(Sudoku sudoku) {
         int size = sudoku.getSize();
         int[][] matrix = new int[size][size];
-        for (Cell cell : sudoku.getSudoku()) {
-            int row = cell.getCoordinate().getRow();
-            int col = cell.getCoordinate().getColumn();
-            matrix[row][col] = cell.getValue();
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                matrix[r][c] = sudoku.getValueAt(sudoku.indexOf(r, c));
+            }
         }
         return matrix;
     }
@@ -38,7 +36,7 @@ public class SudokuModelConverter {
         for (int r = 0; r < sudoku.getSize(); r++){
             for (int c = 0; c < sudoku.getSize(); c++) {
                 result.append(
-                        sudoku.getCellByCoordinate(new Coordinate(r,c)).getValue()
+                        sudoku.getValue(r, c)
                 ).append(" ");
             }
             result.append("\n");
@@ -57,8 +55,8 @@ public class SudokuModelConverter {
                     .append("\n");
             for (int c = 0; c < sudoku.getSize(); c++) {
                 result.append("|")
-                        .append(getColor(sudoku.getCellByCoordinate(new Coordinate(r,c)).getValue()))
-                        .append(String.format("  %d  ", sudoku.getCellByCoordinate(new Coordinate(r,c)).getValue()))
+                        .append(getColor(sudoku.getValue(r, c)))
+                        .append(String.format("  %d  ", sudoku.getValue(r, c)))
                         .append(getColor(-1));
             }
             result.append("|\n");